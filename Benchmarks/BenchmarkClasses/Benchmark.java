@@ -0,0 +1,31 @@
+package BenchmarkClasses;
+
+// One measured operation. invoke() returns a value the runner folds into a sink so the JIT
+// cannot drop the work; opsPerInvocation lets one call stand for several operations.
+public abstract class Benchmark {
+    private final String name;
+    private final String params;
+    private final int opsPerInvocation;
+
+    protected Benchmark(String name, String params) {
+        this(name, params, 1);
+    }
+
+    protected Benchmark(String name, String params, int opsPerInvocation) {
+        this.name = name;
+        this.params = params;
+        this.opsPerInvocation = opsPerInvocation;
+    }
+
+    public String getName() { return name; }
+    public String getParams() { return params; }
+    public int getOpsPerInvocation() { return opsPerInvocation; }
+
+    protected void setup() throws Exception {
+    }
+
+    protected abstract long invoke() throws Exception;
+
+    protected void teardown() throws Exception {
+    }
+}
@@ -0,0 +1,153 @@
+package BenchmarkClasses;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Runs every benchmark through timed warmup and measurement iterations (average time mode)
+// and writes the results as JSON in the same shape JMH uses, so runs can be diffed across builds.
+public class BenchmarkRunner {
+    private int warmupIterations = 5;
+    private int measurementIterations = 10;
+    private long iterationNanos = 500_000_000L;
+    private long sink;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        BenchmarkRunner runner = new BenchmarkRunner();
+        Pattern filter = Pattern.compile(".*");
+        Path output = Paths.get("bench-results", "bench-"
+            + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--filter": filter = Pattern.compile(args[i + 1]); break;
+                case "--warmup": runner.warmupIterations = Integer.parseInt(args[i + 1]); break;
+                case "--iterations": runner.measurementIterations = Integer.parseInt(args[i + 1]); break;
+                case "--time": runner.iterationNanos = Long.parseLong(args[i + 1]) * 1_000_000L; break;
+                case "--out": output = Paths.get(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.addAll(ModelBenchmarks.all());
+        benchmarks.addAll(ScoreBenchmarks.all());
+        benchmarks.addAll(SoundBenchmarks.all());
+        benchmarks.addAll(RenderBenchmarks.all());
+
+        List<Result> results = new ArrayList<>();
+        for (Benchmark benchmark : benchmarks) {
+            if (!filter.matcher(benchmark.getName()).find()) {
+                continue;
+            }
+            Result result = runner.run(benchmark);
+            results.add(result);
+            System.out.printf("%-40s %-32s %14.1f +- %10.1f ns/op%n",
+                benchmark.getName(), benchmark.getParams(), result.mean, result.error);
+        }
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Files.write(output, toJson(results).getBytes(StandardCharsets.UTF_8));
+        System.out.println("Results written to " + output.toAbsolutePath());
+        // Keep the sink observable so benchmark results are never dead code
+        if (runner.sink == Long.MIN_VALUE) {
+            System.out.println(runner.sink);
+        }
+    }
+
+    private Result run(Benchmark benchmark) throws Exception {
+        benchmark.setup();
+        try {
+            for (int i = 0; i < warmupIterations; i++) {
+                iteration(benchmark);
+            }
+            double[] samples = new double[measurementIterations];
+            for (int i = 0; i < measurementIterations; i++) {
+                samples[i] = iteration(benchmark);
+            }
+            return new Result(benchmark, samples);
+        } finally {
+            benchmark.teardown();
+        }
+    }
+
+    // Returns nanoseconds per operation for one timed iteration
+    private double iteration(Benchmark benchmark) throws Exception {
+        long invocations = 0;
+        long start = System.nanoTime();
+        long deadline = start + iterationNanos;
+        long now;
+        do {
+            for (int i = 0; i < 16; i++) {
+                sink += benchmark.invoke();
+            }
+            invocations += 16;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return (double) (now - start) / (invocations * benchmark.getOpsPerInvocation());
+    }
+
+    private static String toJson(List<Result> results) {
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            sb.append("  {\n");
+            sb.append("    \"benchmark\": \"").append(result.name).append("\",\n");
+            sb.append("    \"mode\": \"avgt\",\n");
+            sb.append("    \"jvm\": \"").append(escape(System.getProperty("java.vm.name"))).append("\",\n");
+            sb.append("    \"jdkVersion\": \"").append(escape(System.getProperty("java.version"))).append("\",\n");
+            sb.append("    \"params\": {");
+            String[] params = result.params.isEmpty() ? new String[0] : result.params.split(",");
+            for (int p = 0; p < params.length; p++) {
+                String[] pair = params[p].split("=", 2);
+                sb.append(p == 0 ? "" : ", ").append('"').append(escape(pair[0])).append("\": \"")
+                    .append(escape(pair.length > 1 ? pair[1] : "")).append('"');
+            }
+            sb.append("},\n");
+            sb.append("    \"primaryMetric\": {\n");
+            sb.append("      \"score\": ").append(result.mean).append(",\n");
+            sb.append("      \"scoreError\": ").append(result.error).append(",\n");
+            sb.append("      \"scoreUnit\": \"ns/op\",\n");
+            sb.append("      \"rawData\": [[");
+            for (int s = 0; s < result.samples.length; s++) {
+                sb.append(s == 0 ? "" : ", ").append(result.samples[s]);
+            }
+            sb.append("]]\n    }\n  }").append(i + 1 < results.size() ? ",\n" : "\n");
+        }
+        return sb.append("]\n").toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static class Result {
+        final String name, params;
+        final double[] samples;
+        final double mean, error;
+
+        Result(Benchmark benchmark, double[] samples) {
+            this.name = benchmark.getName();
+            this.params = benchmark.getParams();
+            this.samples = samples;
+            double sum = 0;
+            for (double sample : samples) sum += sample;
+            mean = sum / samples.length;
+            double variance = 0;
+            for (double sample : samples) variance += (sample - mean) * (sample - mean);
+            double stdev = samples.length > 1 ? Math.sqrt(variance / (samples.length - 1)) : 0;
+            // Roughly a 99.9% interval, which is what JMH reports as scoreError
+            error = samples.length > 1 ? 3.29 * stdev / Math.sqrt(samples.length) : 0;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package BenchmarkClasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ModelClasses.GameModel;
+
+public class ModelBenchmarks {
+    public static List<Benchmark> all() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        for (int gridSize : new int[]{4, 6, 8, 32, 1024}) {
+            benchmarks.add(initializeGame(gridSize));
+        }
+        for (int gridSize : new int[]{4, 8, 1024}) {
+            benchmarks.add(selectCard(gridSize));
+        }
+        benchmarks.add(playSolvedGame(8));
+        return benchmarks;
+    }
+
+    private static Benchmark initializeGame(int gridSize) {
+        return new Benchmark("GameModel.initializeGame", "gridSize=" + gridSize) {
+            private GameModel model;
+
+            @Override
+            protected void setup() {
+                model = new GameModel(gridSize);
+            }
+
+            @Override
+            protected long invoke() {
+                model.initializeGame();
+                return model.getSymbolId(0);
+            }
+        };
+    }
+
+    // A first pick, a mismatching second pick and the flip back leave the board unchanged,
+    // so the hot path can be repeated without re-dealing.
+    private static Benchmark selectCard(int gridSize) {
+        return new Benchmark("GameModel.selectCard", "gridSize=" + gridSize, 2) {
+            private GameModel model;
+            private int first, second;
+
+            @Override
+            protected void setup() {
+                model = new GameModel(gridSize);
+                model.initializeGame();
+                first = 0;
+                second = 1;
+                while (model.getSymbolId(second) == model.getSymbolId(first)) {
+                    second++;
+                }
+            }
+
+            @Override
+            protected long invoke() {
+                long result = model.selectCard(first);
+                result += model.selectCard(second);
+                model.flipNonMatchingCards(first, second);
+                return result;
+            }
+        };
+    }
+
+    // Deal a board and clear it with every pair known up front
+    private static Benchmark playSolvedGame(int gridSize) {
+        return new Benchmark("GameModel.playSolvedGame", "gridSize=" + gridSize) {
+            private GameModel model;
+            private int[] partner;
+            private int[] lastBySymbol;
+
+            @Override
+            protected void setup() {
+                model = new GameModel(gridSize);
+                partner = new int[gridSize * gridSize];
+                lastBySymbol = new int[gridSize * gridSize];
+            }
+
+            @Override
+            protected long invoke() {
+                model.initializeGame();
+                int cardCount = model.getCardCount();
+                Arrays.fill(lastBySymbol, -1);
+                for (int i = 0; i < cardCount; i++) {
+                    int symbol = model.getSymbolId(i);
+                    if (lastBySymbol[symbol] < 0) {
+                        lastBySymbol[symbol] = i;
+                        partner[i] = -1;
+                    } else {
+                        partner[i] = lastBySymbol[symbol];
+                        lastBySymbol[symbol] = -1;
+                    }
+                }
+                for (int i = 0; i < cardCount; i++) {
+                    if (partner[i] >= 0) {
+                        model.selectCard(partner[i]);
+                        model.selectCard(i);
+                    }
+                }
+                return model.getAttempts();
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package BenchmarkClasses;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import ModelClasses.GameModel;
+import ViewClasses.BoardCanvas;
+import ViewClasses.GameView;
+
+// Paints GameView boards into an offscreen image; runs under java.awt.headless=true
+public class RenderBenchmarks {
+    public static List<Benchmark> all() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        for (int gridSize : new int[]{4, 6, 8}) {
+            benchmarks.add(paintCard(gridSize, false));
+            benchmarks.add(paintCard(gridSize, true));
+            benchmarks.add(paintBoard(gridSize));
+        }
+        return benchmarks;
+    }
+
+    // One dirty cell, as repainted after a flip or a hover change
+    private static Benchmark paintCard(int gridSize, boolean faceUp) {
+        int size = gridSize <= 4 ? 120 : gridSize == 6 ? 90 : 70;
+        return new Benchmark("BoardCanvas.paintCard", "gridSize=" + gridSize + ",faceUp=" + faceUp) {
+            private BoardCanvas board;
+            private BufferedImage image;
+            private Graphics2D graphics;
+
+            @Override
+            protected void setup() {
+                board = board(gridSize, faceUp ? 1 : 0);
+                image = new BufferedImage(board.getWidth(), board.getHeight(), BufferedImage.TYPE_INT_ARGB);
+                graphics = image.createGraphics();
+                graphics.setClip(0, 0, size, size);
+            }
+
+            @Override
+            protected long invoke() {
+                board.paint(graphics);
+                return image.getRGB(size / 2, size / 2);
+            }
+
+            @Override
+            protected void teardown() {
+                graphics.dispose();
+            }
+        };
+    }
+
+    // Every card, half of them face up, as painted when the board first shows
+    private static Benchmark paintBoard(int gridSize) {
+        return new Benchmark("BoardCanvas.paintBoard", "gridSize=" + gridSize) {
+            private BoardCanvas board;
+            private BufferedImage image;
+            private Graphics2D graphics;
+
+            @Override
+            protected void setup() {
+                board = board(gridSize, gridSize * gridSize / 2);
+                image = new BufferedImage(board.getWidth(), board.getHeight(), BufferedImage.TYPE_INT_ARGB);
+                graphics = image.createGraphics();
+            }
+
+            @Override
+            protected long invoke() {
+                board.paint(graphics);
+                return image.getRGB(image.getWidth() / 2, image.getHeight() / 2);
+            }
+
+            @Override
+            protected void teardown() {
+                graphics.dispose();
+            }
+        };
+    }
+
+    private static BoardCanvas board(int gridSize, int faceUp) {
+        GameModel model = new GameModel(gridSize);
+        model.initializeGame();
+        BoardCanvas board = GameView.createBoard(gridSize);
+        board.setSize(board.getPreferredSize());
+        for (int i = 0; i < board.getCardCount(); i++) {
+            board.setCard(i, i < faceUp ? BoardCanvas.FRONT : BoardCanvas.BACK,
+                i < faceUp ? model.getCard(i).getSymbol() : null);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,56 @@
+package BenchmarkClasses;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import ModelClasses.ScoreEntry;
+import ModelClasses.ScoreManager;
+
+public class ScoreBenchmarks {
+    public static List<Benchmark> all() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.add(addScore());
+        return benchmarks;
+    }
+
+    // ScoreManager resolves its file against user.dir, so point that at a scratch directory
+    private static Benchmark addScore() {
+        return new Benchmark("ScoreManager.addScore", "") {
+            private String originalUserDir;
+            private Path scratch;
+            private ScoreManager scoreManager;
+            private int counter;
+
+            @Override
+            protected void setup() throws Exception {
+                originalUserDir = System.getProperty("user.dir");
+                scratch = Files.createTempDirectory("score-bench");
+                System.setProperty("user.dir", scratch.toString());
+                scoreManager = new ScoreManager();
+            }
+
+            @Override
+            protected long invoke() {
+                counter++;
+                int attempts = 8 + (counter * 7919) % 40;
+                int seconds = (counter * 104729) % 180;
+                scoreManager.addScore(new ScoreEntry("Bench", "Easy", attempts, seconds)).join();
+                return scoreManager.getHighScores().size();
+            }
+
+            @Override
+            protected void teardown() throws Exception {
+                scoreManager.close();
+                System.setProperty("user.dir", originalUserDir);
+                try (var files = Files.list(scratch)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(scratch);
+            }
+        };
+    }
+}
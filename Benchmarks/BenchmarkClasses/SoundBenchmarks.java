@@ -0,0 +1,31 @@
+package BenchmarkClasses;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ModelClasses.ToneSynth;
+
+public class SoundBenchmarks {
+    public static List<Benchmark> all() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.add(new Benchmark("ToneSynth.render", "stereo,hz=880,msecs=200") {
+            private final ToneSynth.Note note = new ToneSynth.Note(880, 200);
+
+            @Override
+            protected long invoke() {
+                return ToneSynth.render(ToneSynth.Envelope.PLUCK, 2, note).length;
+            }
+        });
+        benchmarks.add(new Benchmark("ToneSynth.render", "stereo,hz=660/784/880,msecs=200/200/400") {
+            private final ToneSynth.Note[] notes = {
+                new ToneSynth.Note(660, 200), new ToneSynth.Note(784, 200), new ToneSynth.Note(880, 400)
+            };
+
+            @Override
+            protected long invoke() {
+                return ToneSynth.render(ToneSynth.Envelope.PLUCK, 2, notes).length;
+            }
+        });
+        return benchmarks;
+    }
+}
@@ -3,9 +3,11 @@ package ControllerClasses;
 import javax.swing.*;
 
 import MainClass.Main;
-import ModelClasses.Card;
+import ModelClasses.GameJournal;
 import ModelClasses.GameModel;
+import ModelClasses.ScoreEntry;
 import ModelClasses.ScoreManager;
+import ModelClasses.ScoreRanks;
 import ModelClasses.SoundManager;
 import ViewClasses.GameView;
 
@@ -17,10 +19,15 @@ public class GameController {
     private GameView view;
     private ScoreManager scoreManager;
     private SoundManager soundManager;
-    private Timer gameTimer;
-    private Timer flipTimer;
+    private GameJournal journal;
+    private final TimingWheel timers = TimingWheel.shared();
+    private final TimingWheel.Timeout gameTimer;
+    private final TimingWheel.Timeout flipTimer;
+    private boolean flipPending;
+    private boolean gameOver;
+    private int streak;
+    private int flipIndex1, flipIndex2;
     private String playerName;
-    private int firstCardIndex = -1;
 
     public GameController(GameModel model, GameView view, ScoreManager scoreManager, 
                         SoundManager soundManager, String playerName) {
@@ -29,20 +36,27 @@ public class GameController {
         this.scoreManager = scoreManager;
         this.soundManager = soundManager;
         this.playerName = playerName;
+        // The wheel thread only hands each expiry over to the EDT
+        Runnable onSecond = this::onSecond;
+        Runnable onFlipBack = this::onFlipBack;
+        this.gameTimer = new TimingWheel.Timeout(() -> SwingUtilities.invokeLater(onSecond));
+        this.flipTimer = new TimingWheel.Timeout(() -> SwingUtilities.invokeLater(onFlipBack));
         
         initializeGame();
         setupEventHandlers();
     }
     
     private void initializeGame() {
-        model.initializeGame();
+        // Boards from the BoardFactory arrive already dealt
+        if (!model.isFreshBoard()) {
+            model.initializeGame();
+        }
         view.initializeGameBoard(model.getGridSize());
+        view.showBoardSeed(model.getSeed());
+        journal = GameJournal.open(model);
         
-        for (int i = 0; i < model.getCards().size(); i++) {
-            final int index = i;
-            view.setCardListener(index, e -> handleCardClick(index));
-            view.updateCard(index, model.getCards().get(index));
-        }
+        // Every card starts face down, so only the click handler needs wiring
+        view.setCardClickListener(this::handleCardClick);
         
         view.setBackButtonListener(e -> returnToMenu());
         updateStatus();
@@ -54,78 +68,58 @@ public class GameController {
     }
     
     private void handleCardClick(int index) {
-        // Don't process if game isn't active or card is already matched
-        if (!model.isGameActive() || model.getCards().get(index).isMatched()) {
+        // Don't process if we're waiting for cards to flip back
+        if (flipPending) {
             return;
         }
         
-        // Don't process if we're waiting for cards to flip back
-        if (flipTimer != null && flipTimer.isRunning()) {
+        int result = model.selectCard(index);
+        if (result == GameModel.IGNORED) {
             return;
         }
+        journal.append(index, result);
+        view.updateCard(index, model.getCard(index));
         
-        // Flip the card
-        model.getCards().get(index).setFlipped(true);
-        view.updateCard(index, model.getCards().get(index));
-        
-        if (firstCardIndex == -1) {
-            // First card selected
-            firstCardIndex = index;
-        } else {
-            // Second card selected
-            model.setAttempts(model.getAttempts() + 1);
-            int secondCardIndex = index;
-            
-            if (cardsMatch(firstCardIndex, secondCardIndex)) {
-                // Cards match
-                soundManager.playMatchSound();
-                handleMatch(firstCardIndex, secondCardIndex);
-            } else {
-                // Cards don't match
-                soundManager.playMismatchSound();
-                flipNonMatchingCards(firstCardIndex, secondCardIndex);
-            }
-            firstCardIndex = -1;
+        if (result == GameModel.MATCH) {
+            streak++;
+            soundManager.playComboSound(streak);
+            handleMatch(model.getPreviousPick(), index);
+        } else if (result == GameModel.MISMATCH) {
+            streak = 0;
+            soundManager.playMismatchSound();
+            flipNonMatchingCards(model.getPreviousPick(), index);
         }
         
         updateStatus();
     }
     
-    private boolean cardsMatch(int index1, int index2) {
-        return model.getCards().get(index1).getSymbol()
-               .equals(model.getCards().get(index2).getSymbol());
-    }
-    
     private void handleMatch(int index1, int index2) {
-        model.getCards().get(index1).setMatched(true);
-        model.getCards().get(index2).setMatched(true);
-        model.setPairsFound(model.getPairsFound() + 1);
-        
-        view.updateCard(index1, model.getCards().get(index1));
-        view.updateCard(index2, model.getCards().get(index2));
+        view.updateCard(index1, model.getCard(index1));
+        view.updateCard(index2, model.getCard(index2));
         
         // Check for game completion
-        if (model.getPairsFound() == (model.getGridSize() * model.getGridSize()) / 2) {
+        if (model.getPairsFound() == model.getTotalPairs()) {
             endGame(true);
         }
     }
     
     private void flipNonMatchingCards(int index1, int index2) {
-        model.setGameActive(false); // Temporarily disable input
-        
-        flipTimer = new Timer(1000, e -> {
-            model.getCards().get(index1).setFlipped(false);
-            model.getCards().get(index2).setFlipped(false);
-            
-            view.updateCard(index1, model.getCards().get(index1));
-            view.updateCard(index2, model.getCards().get(index2));
-            
-            model.setGameActive(true); // Re-enable input
-            flipTimer.stop();
-        });
+        // The model has already disabled input until the cards are turned back
+        flipPending = true;
+        flipIndex1 = index1;
+        flipIndex2 = index2;
+        timers.schedule(flipTimer, 1000);
+    }
+    
+    private void onFlipBack() {
+        if (!flipPending) {
+            return;
+        }
+        flipPending = false;
+        model.flipNonMatchingCards(flipIndex1, flipIndex2);
         
-        flipTimer.setRepeats(false);
-        flipTimer.start();
+        view.updateCard(flipIndex1, model.getCard(flipIndex1));
+        view.updateCard(flipIndex2, model.getCard(flipIndex2));
     }
     
     private void updateStatus() {
@@ -134,50 +128,72 @@ public class GameController {
             model.getDifficultyText(),
             model.getAttempts(),
             model.getPairsFound(),
-            (model.getGridSize() * model.getGridSize()) / 2);
+            model.getTotalPairs());
         view.updateStatus(status);
     }
     
     private void startGameTimer() {
-        gameTimer = new Timer(1000, e -> {
-            model.setTimeLeft(model.getTimeLeft() - 1);
-            String timeText = String.format("Time: %02d:%02d", 
-                model.getTimeLeft() / 60, model.getTimeLeft() % 60);
-            view.updateTimer(timeText, model.getTimeLeft() <= 30);
-            
-            if (model.getTimeLeft() <= 0) {
-                endGame(false);
-            }
-        });
+        timers.scheduleRepeating(gameTimer, 1000, 1000);
+    }
+    
+    private void onSecond() {
+        // A tick may already be queued on the EDT when the game ends
+        if (gameOver) {
+            return;
+        }
+        model.setTimeLeft(model.getTimeLeft() - 1);
+        String timeText = String.format("Time: %02d:%02d", 
+            model.getTimeLeft() / 60, model.getTimeLeft() % 60);
+        view.updateTimer(timeText, model.getTimeLeft() <= 30);
+        soundManager.playTickSound(model.getTimeLeft());
         
-        gameTimer.start();
+        if (model.getTimeLeft() <= 0) {
+            endGame(false);
+        }
     }
     
     private void endGame(boolean won) {
-        gameTimer.stop();
+        gameOver = true;
+        timers.cancel(gameTimer);
         model.setGameActive(false);
         
         if (won) {
             soundManager.playWinSound();
-            String timeLeft = String.format("%02d:%02d", 
-                model.getTimeLeft() / 60, model.getTimeLeft() % 60);
-            scoreManager.addScore(playerName, model.getDifficultyText(), 
-                model.getAttempts(), timeLeft);
+            ScoreEntry score = new ScoreEntry(playerName, model.getDifficultyText(), 
+                model.getAttempts(), model.getTimeLeft());
+            ScoreRanks.Rank rank = scoreManager.getRank(score);
+            // The write happens on the score writer thread; the scoreboard catches up once it is durable
+            scoreManager.addScore(score).whenCompleteAsync((saved, error) -> {
+                if (error != null) {
+                    System.err.println("Error saving scores: " + error.getMessage());
+                }
+                Main.refreshScoreboard();
+            }, SwingUtilities::invokeLater);
             
             String message = String.format("Congratulations %s! You won in %d attempts!\n", 
                 playerName, model.getAttempts());
-            message += String.format("With %s remaining!", timeLeft);
+            message += String.format("With %s remaining!\n", score.getTimeLeftText());
+            message += String.format("You are #%,d of %,d on %s, top %s%%", rank.getPosition(), rank.getTotal(),
+                score.getDifficultyText(), formatPercent(rank.getTopPercent()));
             view.showWinMessage(message);
         } else {
             view.showGameOverMessage(String.format(
                 "Time's up! You found %d of %d pairs.",
-                model.getPairsFound(), (model.getGridSize() * model.getGridSize()) / 2));
+                model.getPairsFound(), model.getTotalPairs()));
         }
         
         returnToMenu();
     }
     
+    private static String formatPercent(double percent) {
+        return percent < 10 ? String.format("%.1f", percent) : String.format("%.0f", percent);
+    }
+    
     private void returnToMenu() {
+        gameOver = true;
+        timers.cancel(gameTimer);
+        timers.cancel(flipTimer);
+        journal.close();
         view.hide();
         Main.showMenuView();
     }
@@ -2,9 +2,16 @@ package ControllerClasses;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import javax.swing.SwingUtilities;
+
+import ModelClasses.BoardFactory;
 import ModelClasses.GameModel;
 import ModelClasses.ScoreManager;
+import ModelClasses.ScoreQuery;
 import ModelClasses.SoundManager;
 import ViewClasses.GameView;
 import ViewClasses.MenuView;
@@ -15,6 +22,10 @@ public class MenuController {
     private ScoreManager scoreManager;
     private SoundManager soundManager;
     private ScoreboardView scoreboardView;
+    private int selectedGridSize = 4;
+    private final BoardFactory boardFactory = new BoardFactory(2);
+    private final Map<Integer, GameView> preparedViews = new HashMap<>();
+    private int scoreboardRequest;
     
     public MenuController(MenuView view, ScoreManager scoreManager, SoundManager soundManager) {
         this.view = view;
@@ -23,6 +34,9 @@ public class MenuController {
         this.scoreboardView = new ScoreboardView();
         
         setupEventHandlers();
+        boardFactory.prepare(4);
+        boardFactory.prepare(6);
+        boardFactory.prepare(8);
     }
     
     private void setupEventHandlers() {
@@ -30,16 +44,32 @@ public class MenuController {
         view.setDifficultyButtonListener(0, e -> setDifficulty(4));
         view.setDifficultyButtonListener(1, e -> setDifficulty(6));
         view.setDifficultyButtonListener(2, e -> setDifficulty(8));
+        view.setDifficultyButtonListener(3, e -> setDifficulty(GameModel.MAX_GRID_SIZE));
         
         view.setStartButtonListener(e -> startGame());
         view.setScoreboardButtonListener(e -> showScoreboard());
         view.setSoundToggleListener(e -> toggleSounds());
         
         scoreboardView.setBackButtonListener(e -> scoreboardView.hide());
+        scoreboardView.setFilterListener(e -> updateScoreboard());
     }
     
     private void setDifficulty(int gridSize) {
+        selectedGridSize = gridSize;
         view.enableStartButton(true);
+        boardFactory.prepare(gridSize);
+        prepareView(gridSize);
+    }
+    
+    // Builds the game window for this size after the current event, while the player is still in the menu
+    private void prepareView(int gridSize) {
+        SwingUtilities.invokeLater(() -> {
+            if (!preparedViews.containsKey(gridSize)) {
+                GameView gameView = new GameView();
+                gameView.prepareGameBoard(gridSize);
+                preparedViews.put(gridSize, gameView);
+            }
+        });
     }
     
     private void startGame() {
@@ -48,30 +78,63 @@ public class MenuController {
             playerName = "Player";
         }
         
-        // Default to easy if no difficulty selected (shouldn't happen as start button is disabled)
-        int gridSize = 4;
-        
-        // Determine which difficulty button was pressed
-        for (int i = 0; i < 3; i++) {
-            if (view.getDifficultyButtons()[i].getModel().isArmed()) {
-                gridSize = (i == 0) ? 4 : (i == 1) ? 6 : 8;
-                break;
-            }
-        }
-        
         view.hide();
         
-        GameModel model = new GameModel(gridSize);
-        GameView gameView = new GameView();
+        GameModel model = boardFactory.take(selectedGridSize);
+        GameView gameView = preparedViews.remove(selectedGridSize);
+        if (gameView == null) {
+            gameView = new GameView();
+        }
         new GameController(model, gameView, scoreManager, soundManager, playerName);
         gameView.show();
+        prepareView(selectedGridSize);
     }
     
     private void showScoreboard() {
-        scoreboardView.displayScores(scoreManager.getHighScores());
+        updateScoreboard();
         scoreboardView.show();
     }
     
+    // Called on the EDT after a score has been committed
+    public void refreshScoreboard() {
+        if (scoreboardView.isShowing()) {
+            updateScoreboard();
+        }
+    }
+    
+    // Unfiltered boards come straight from the published snapshot. A filter goes through the
+    // score index, whose first use reads the whole history, so it is answered off the EDT and
+    // only the latest request's answer is shown.
+    private void updateScoreboard() {
+        String playerName = scoreboardView.getPlayerFilter();
+        int difficulty = scoreboardView.getDifficultyFilter();
+        int days = scoreboardView.getPeriodDays();
+        int request = ++scoreboardRequest;
+        if (playerName.isEmpty() && difficulty < 0 && days == 0) {
+            scoreboardView.displayScores(scoreManager.getHighScores());
+            return;
+        }
+        
+        ScoreQuery query = ScoreQuery.best(ScoreManager.BOARD_SIZE);
+        if (!playerName.isEmpty()) {
+            query = query.forPlayer(playerName);
+        }
+        if (difficulty >= 0) {
+            query = query.onDifficulty(difficulty);
+        }
+        if (days > 0) {
+            long now = System.currentTimeMillis();
+            query = query.between(now - days * 86_400_000L, Long.MAX_VALUE);
+        }
+        ScoreQuery filter = query;
+        CompletableFuture.supplyAsync(() -> scoreManager.query(filter)).thenAccept(scores ->
+            SwingUtilities.invokeLater(() -> {
+                if (request == scoreboardRequest) {
+                    scoreboardView.displayScores(scores);
+                }
+            }));
+    }
+    
     private void toggleSounds() {
         soundManager.toggleSound();
         view.updateSoundButton(soundManager.isSoundEnabled());
@@ -0,0 +1,201 @@
+package ControllerClasses;
+
+import java.util.concurrent.locks.LockSupport;
+
+// One hierarchical timing wheel drives every countdown and flip-back delay in the process.
+// Four levels of 64 slots cover about 19 days at the default 10 ms tick. Each Timeout is an
+// intrusive list node owned by the caller, so scheduling and cancelling are O(1) unlinks and a
+// tick allocates nothing; repeating timeouts are re-linked rather than recreated.
+//
+// Tasks run on the wheel thread while it holds the wheel lock. They must only hand work off,
+// e.g. SwingUtilities.invokeLater or a session mailbox.
+public final class TimingWheel {
+    public static final long DEFAULT_TICK_MILLIS = 10;
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELTA = 1L << (SLOT_BITS * LEVELS);
+    private static final int IDLE = -1;
+    private static final int FIRING = -2;
+
+    private static TimingWheel shared;
+
+    private final long tickNanos;
+    private final Timeout[][] heads = new Timeout[LEVELS][SLOTS];
+    private final long startNanos = System.nanoTime();
+    private long currentTick;
+    private int pending;
+
+    public TimingWheel(long tickMillis) {
+        this.tickNanos = tickMillis * 1_000_000L;
+        Thread thread = new Thread(this::run, "timing-wheel");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static synchronized TimingWheel shared() {
+        if (shared == null) {
+            shared = new TimingWheel(DEFAULT_TICK_MILLIS);
+        }
+        return shared;
+    }
+
+    public static class Timeout {
+        private final Runnable task;
+        private Timeout prev, next, nextFiring;
+        private long deadline;
+        private long periodTicks;
+        private int level = IDLE, slot;
+
+        public Timeout(Runnable task) {
+            this.task = task;
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return pending;
+    }
+
+    public synchronized void schedule(Timeout timeout, long delayMillis) {
+        scheduleRepeating(timeout, delayMillis, 0);
+    }
+
+    // Re-schedules the timeout if it is already pending
+    public synchronized void scheduleRepeating(Timeout timeout, long delayMillis, long periodMillis) {
+        cancel(timeout);
+        long tickMillis = tickNanos / 1_000_000L;
+        timeout.deadline = currentTick + Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        timeout.periodTicks = periodMillis <= 0 ? 0 : Math.max(1, periodMillis / tickMillis);
+        link(timeout);
+    }
+
+    public synchronized boolean cancel(Timeout timeout) {
+        if (timeout.level == FIRING) {
+            // Unlinked for this tick but not run yet; a task fired earlier in the same tick cancelled it
+            timeout.level = IDLE;
+            return true;
+        }
+        if (timeout.level == IDLE) {
+            return false;
+        }
+        if (timeout.prev == null) {
+            heads[timeout.level][timeout.slot] = timeout.next;
+        } else {
+            timeout.prev.next = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = timeout.next = null;
+        timeout.level = IDLE;
+        pending--;
+        return true;
+    }
+
+    private void link(Timeout timeout) {
+        long delta = timeout.deadline - currentTick;
+        int level;
+        long slotTick;
+        if (delta <= 0) {
+            level = 0;
+            slotTick = currentTick;
+        } else if (delta >= MAX_DELTA) {
+            level = LEVELS - 1;
+            slotTick = currentTick + MAX_DELTA - 1;
+        } else {
+            level = 0;
+            while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            slotTick = timeout.deadline;
+        }
+        int slot = (int) (slotTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+        Timeout head = heads[level][slot];
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        heads[level][slot] = timeout;
+        timeout.level = level;
+        timeout.slot = slot;
+        pending++;
+    }
+
+    private void run() {
+        while (true) {
+            long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+            synchronized (this) {
+                while (currentTick < targetTick) {
+                    advance();
+                }
+            }
+            long nextTickNanos = startNanos + (targetTick + 1) * tickNanos;
+            LockSupport.parkNanos(nextTickNanos - System.nanoTime());
+        }
+    }
+
+    private void advance() {
+        currentTick++;
+        // Pull the next stretch of each coarser level down before firing this tick's slot
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                int slot = (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+                Timeout timeout = detach(level, slot);
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    timeout.prev = timeout.next = null;
+                    link(timeout);
+                    timeout = next;
+                }
+            }
+        }
+
+        // Chain the due timeouts through nextFiring first, so tasks that reschedule or cancel
+        // other timeouts cannot disturb the walk
+        Timeout firing = null;
+        Timeout timeout = detach(0, (int) currentTick & SLOT_MASK);
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = timeout.next = null;
+            if (timeout.deadline > currentTick) {
+                link(timeout);
+            } else {
+                timeout.level = FIRING;
+                timeout.nextFiring = firing;
+                firing = timeout;
+            }
+            timeout = next;
+        }
+
+        while (firing != null) {
+            Timeout next = firing.nextFiring;
+            firing.nextFiring = null;
+            if (firing.level == FIRING) {
+                firing.level = IDLE;
+                if (firing.periodTicks > 0) {
+                    firing.deadline += firing.periodTicks;
+                    link(firing);
+                }
+                try {
+                    firing.task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error in timer task: " + e.getMessage());
+                }
+            }
+            firing = next;
+        }
+    }
+
+    private Timeout detach(int level, int slot) {
+        Timeout head = heads[level][slot];
+        heads[level][slot] = null;
+        for (Timeout t = head; t != null; t = t.next) {
+            t.level = IDLE;
+            pending--;
+        }
+        return head;
+    }
+}
@@ -9,14 +9,17 @@ import ViewClasses.MenuView;
 
 public class Main {
     private static MenuView menuView;
+    private static MenuController menuController;
     
     public static void main(String[] args) {
+        // Opening the store can migrate and read millions of scores, so it happens here on the
+        // main thread and the EDT only wires up the finished manager
+        ScoreManager scoreManager = new ScoreManager();
         SwingUtilities.invokeLater(() -> {
-            ScoreManager scoreManager = new ScoreManager();
             SoundManager soundManager = new SoundManager();
             
             menuView = new MenuView();
-            new MenuController(menuView, scoreManager, soundManager);
+            menuController = new MenuController(menuView, scoreManager, soundManager);
             menuView.show();
         });
     }
@@ -24,5 +27,9 @@ public class Main {
     public static void showMenuView() {
         menuView.show();
     }
+    
+    public static void refreshScoreboard() {
+        menuController.refreshScoreboard();
+    }
 }
 
@@ -0,0 +1,57 @@
+package ModelClasses;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Keeps a few dealt boards per grid size ready on a background thread,
+// so starting a game is a queue hand-off instead of a shuffle on the EDT.
+public class BoardFactory {
+    private final int poolSize;
+    private final Map<Integer, BlockingQueue<GameModel>> pools = new ConcurrentHashMap<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "board-factory");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    public BoardFactory(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public void prepare(int gridSize) {
+        pools.computeIfAbsent(gridSize, size -> new ArrayBlockingQueue<>(poolSize));
+        refill(gridSize);
+    }
+
+    // Never blocks: falls back to dealing on the caller's thread when the pool is empty
+    public GameModel take(int gridSize) {
+        BlockingQueue<GameModel> pool = pools.get(gridSize);
+        GameModel model = pool == null ? null : pool.poll();
+        if (model == null) {
+            model = new GameModel(gridSize);
+            model.initializeGame();
+        }
+        if (pool != null) {
+            refill(gridSize);
+        }
+        return model;
+    }
+
+    private void refill(int gridSize) {
+        worker.execute(() -> {
+            BlockingQueue<GameModel> pool = pools.get(gridSize);
+            while (pool.remainingCapacity() > 0) {
+                GameModel model = new GameModel(gridSize);
+                model.initializeGame();
+                if (!pool.offer(model)) {
+                    break;
+                }
+            }
+        });
+    }
+}
@@ -1,29 +1,25 @@
 package ModelClasses;
 
+// Read-only view of one card; the state itself lives in GameModel
 public class Card {
-    private final String symbol;
-    private boolean matched;
-    private boolean flipped;
-    
-    public Card(String symbol) {
-        this.symbol = symbol;
-        this.matched = false;
-        this.flipped = false;
+    private final GameModel model;
+    private final int index;
+
+    Card(GameModel model, int index) {
+        this.model = model;
+        this.index = index;
     }
-    
-    public String getSymbol() { 
-    	return symbol; 
-    	}
-    public boolean isMatched() { 
-    	return matched; 
+
+    public int getIndex() {
+    	return index;
     	}
-    public boolean isFlipped() { 
-    	return flipped; 
+    public String getSymbol() {
+    	return model.getSymbol(index);
     	}
-    public void setMatched(boolean matched) {
-    	this.matched = matched;
+    public boolean isMatched() {
+    	return model.isMatched(index);
     	}
-    public void setFlipped(boolean flipped) { 
-    	this.flipped = flipped; 
+    public boolean isFlipped() {
+    	return model.isFlipped(index);
     	}
 }
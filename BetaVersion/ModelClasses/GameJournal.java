@@ -0,0 +1,154 @@
+package ModelClasses;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Append-only record of every move in one game.
+//
+// File layout (big endian):
+//   header  MAGIC, VERSION, record size, grid size, board seed, start time in epoch millis
+//   records RECORD_SIZE bytes each: int millis since the previous move, int (cardIndex << 2 | result)
+//
+// append() only writes a long into a ring buffer, so it neither allocates nor touches the disk.
+// One shared background thread drains every open journal into its FileChannel.
+public class GameJournal {
+    public static final int MAGIC = 0x4D434A31; // "MCJ1"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 8;
+    public static final String JOURNAL_DIR = "journals";
+    public static final String FILE_EXTENSION = ".mcj";
+
+    private static final int RING_SIZE = 1 << 12;
+    private static final long FLUSH_INTERVAL_NANOS = 20_000_000L;
+    private static final Set<GameJournal> OPEN = ConcurrentHashMap.newKeySet();
+    private static Thread writerThread;
+
+    private final Path file;
+    private final int gridSize;
+    private final long seed;
+    private final long startMillis;
+    private final long[] ring = new long[RING_SIZE];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RING_SIZE * RECORD_SIZE).order(ByteOrder.BIG_ENDIAN);
+    private long lastMillis;
+    private long dropped;
+    private volatile boolean closed;
+    private FileChannel channel;
+
+    private GameJournal(Path file, int gridSize, long seed, long startMillis) {
+        this.file = file;
+        this.gridSize = gridSize;
+        this.seed = seed;
+        this.startMillis = startMillis;
+        this.lastMillis = startMillis;
+    }
+
+    public static GameJournal open(GameModel model) {
+        long now = System.currentTimeMillis();
+        Path file = Paths.get(System.getProperty("user.dir"), JOURNAL_DIR,
+            "game-" + now + "-" + Long.toHexString(model.getSeed()) + FILE_EXTENSION);
+        GameJournal journal = new GameJournal(file, model.getGridSize(), model.getSeed(), now);
+        OPEN.add(journal);
+        startWriter();
+        return journal;
+    }
+
+    public Path getFile() { return file; }
+    public long getDropped() { return dropped; }
+
+    // Called from the game thread only. Drops the record rather than block if the writer falls behind.
+    public void append(int cardIndex, int result) {
+        if (closed) {
+            return;
+        }
+        long h = head.get();
+        if (h - tail.get() >= RING_SIZE) {
+            dropped++;
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long delta = Math.min(Integer.MAX_VALUE, Math.max(0, now - lastMillis));
+        lastMillis = now;
+        ring[(int) h & (RING_SIZE - 1)] = delta << 32 | ((cardIndex << 2 | result) & 0xFFFFFFFFL);
+        head.lazySet(h + 1);
+    }
+
+    // The writer thread flushes what is left and closes the file
+    public void close() {
+        closed = true;
+    }
+
+    private static synchronized void startWriter() {
+        if (writerThread != null) {
+            return;
+        }
+        writerThread = new Thread(() -> {
+            while (true) {
+                for (GameJournal journal : OPEN) {
+                    journal.drain();
+                }
+                LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+            }
+        }, "game-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    private void drain() {
+        boolean closing = closed;
+        try {
+            if (channel == null) {
+                Files.createDirectories(file.getParent());
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+                buffer.clear();
+                buffer.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE)
+                    .putInt(gridSize).putLong(seed).putLong(startMillis).putInt(0);
+                writeBuffer();
+            }
+
+            long t = tail.get();
+            long h = head.get();
+            while (t < h) {
+                buffer.clear();
+                for (; t < h && buffer.remaining() >= RECORD_SIZE; t++) {
+                    buffer.putLong(ring[(int) t & (RING_SIZE - 1)]);
+                }
+                writeBuffer();
+                tail.lazySet(t);
+            }
+
+            if (closing && tail.get() == head.get()) {
+                OPEN.remove(this);
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing game journal: " + e.getMessage());
+            OPEN.remove(this);
+            closed = true;
+            try {
+                if (channel != null) channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
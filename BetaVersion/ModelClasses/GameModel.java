@@ -1,141 +1,258 @@
 package ModelClasses;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-
-import java.util.*;
-import javax.swing.Timer;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class GameModel {
-    private List<Card> cards;
+    // Results returned by selectCard
+    public static final int IGNORED = 0;
+    public static final int FIRST_PICK = 1;
+    public static final int MATCH = 2;
+    public static final int MISMATCH = 3;
+
+    // Boards above Hard use generated pair ids instead of the emoji set
+    public static final int MAX_STANDARD_GRID_SIZE = 8;
+    public static final int MAX_GRID_SIZE = 1024;
+
+    // Board state: symbol ids per card plus one bit per card for matched/flipped
+    private int[] symbols = new int[0];
+    private long[] matchedBits = new long[0];
+    private long[] flippedBits = new long[0];
+    private int cardCount;
+    private long seed;
+    private List<Card> cardView;
+
     private int firstCardIndex = -1;
+    private int previousPick = -1;
     private int pairsFound = 0;
     private int attempts = 0;
     private int timeLeft = 180;
     private boolean gameActive = false;
-    private Timer gameTimer;
     private int gridSize;
-    
-    private final String[] CARD_SYMBOLS = {"🐶", "🐱", "🐭", "🐹", "🐰", "🦊", "🐻", "🐼", "🦁", "🐮", "🐯", "🐷"};
-    
+
+    private static final String[] CARD_SYMBOLS = {"🐶", "🐱", "🐭", "🐹", "🐰", "🦊", "🐻", "🐼", "🦁", "🐮", "🐯", "🐷"};
+
     public GameModel(int gridSize) {
+        if (gridSize < 2 || gridSize > MAX_GRID_SIZE) {
+            throw new IllegalArgumentException("Grid size must be between 2 and " + MAX_GRID_SIZE + ": " + gridSize);
+        }
+        if (gridSize % 2 != 0) {
+            // An odd grid has one card left over that can never be matched
+            throw new IllegalArgumentException("Grid size must be even: " + gridSize);
+        }
         this.gridSize = gridSize;
     }
-    
+
     public void initializeGame() {
+        initializeGame(ThreadLocalRandom.current().nextLong());
+    }
+
+    // The same seed and grid size always deal the same board
+    public void initializeGame(long seed) {
+        this.seed = seed;
         pairsFound = 0;
         attempts = 0;
         timeLeft = 180;
         gameActive = true;
         firstCardIndex = -1;
-        
-        List<String> symbols = new ArrayList<>();
-        int pairsNeeded = (gridSize * gridSize) / 2;
-        
-        for (int i = 0; i < pairsNeeded; i++) {
-            symbols.add(CARD_SYMBOLS[i % CARD_SYMBOLS.length]);
-            symbols.add(CARD_SYMBOLS[i % CARD_SYMBOLS.length]);
+        previousPick = -1;
+
+        cardCount = gridSize * gridSize;
+        if (symbols.length != cardCount) {
+            symbols = new int[cardCount];
+            matchedBits = new long[(cardCount + 63) >>> 6];
+            flippedBits = new long[matchedBits.length];
+        } else {
+            Arrays.fill(matchedBits, 0L);
+            Arrays.fill(flippedBits, 0L);
         }
-        
-        Collections.shuffle(symbols);
-        cards = new ArrayList<>();
-        
-        for (String symbol : symbols) {
-            cards.add(new Card(symbol));
+
+        dealPairs(symbols, isHugeBoard() ? Integer.MAX_VALUE : CARD_SYMBOLS.length, seed);
+    }
+
+    // Fills symbols with the pairs 0,0,1,1,... (wrapping at symbolCount) and shuffles them for the
+    // seed. Every game front end deals through here, so a seed gives the same board in all of them.
+    public static void dealPairs(int[] symbols, int symbolCount, long seed) {
+        for (int i = 0; i < symbols.length / 2; i++) {
+            int symbol = i % symbolCount;
+            symbols[2 * i] = symbol;
+            symbols[2 * i + 1] = symbol;
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = symbols.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = symbols[i];
+            symbols[i] = symbols[j];
+            symbols[j] = tmp;
+        }
+    }
+
+    // Read-only view for the Swing code; Card objects are only created on access
+    public List<Card> getCards() {
+        if (cardView == null) {
+            cardView = new AbstractList<Card>() {
+                @Override
+                public Card get(int index) {
+                    return getCard(index);
+                }
+
+                @Override
+                public int size() {
+                    return cardCount;
+                }
+            };
         }
+        return cardView;
     }
-    
-    public List<Card> getCards() { return cards; }
+
+    public Card getCard(int index) {
+        if (index < 0 || index >= cardCount) {
+            throw new IndexOutOfBoundsException("Card index " + index + " out of " + cardCount);
+        }
+        return new Card(this, index);
+    }
+
+    public long getSeed() { return seed; }
+    public boolean isFreshBoard() { return cardCount > 0 && attempts == 0 && pairsFound == 0 && firstCardIndex == -1; }
+    public int getCardCount() { return cardCount; }
+    public int getTotalPairs() { return cardCount / 2; }
+    public int getSymbolId(int index) { return symbols[index]; }
+    public boolean isHugeBoard() { return gridSize > MAX_STANDARD_GRID_SIZE; }
+    public boolean isMatched(int index) { return (matchedBits[index >>> 6] & (1L << index)) != 0; }
+    public boolean isFlipped(int index) { return (flippedBits[index >>> 6] & (1L << index)) != 0; }
+    public int getPreviousPick() { return previousPick; }
     public int getPairsFound() { return pairsFound; }
     public int getAttempts() { return attempts; }
     public int getTimeLeft() { return timeLeft; }
     public boolean isGameActive() { return gameActive; }
     public int getGridSize() { return gridSize; }
-    
-    public void selectCard(int index) {
-        if (!gameActive || cards.get(index).isMatched() || cards.get(index).isFlipped()) {
-            return;
+
+    public String getSymbol(int index) {
+        int symbol = symbols[index];
+        return isHugeBoard() ? Integer.toString(symbol, 36).toUpperCase() : CARD_SYMBOLS[symbol];
+    }
+
+    public int selectCard(int index) {
+        if (index < 0 || index >= cardCount || !gameActive || isMatched(index) || isFlipped(index)) {
+            return IGNORED;
         }
-        
-        cards.get(index).setFlipped(true);
-        
+
+        flippedBits[index >>> 6] |= 1L << index;
+
         if (firstCardIndex == -1) {
             firstCardIndex = index;
-        } else {
-            attempts++;
-            if (cards.get(firstCardIndex).getSymbol().equals(cards.get(index).getSymbol())) {
-                cards.get(firstCardIndex).setMatched(true);
-                cards.get(index).setMatched(true);
-                pairsFound++;
-                
-                if (pairsFound == (gridSize * gridSize) / 2) {
-                    gameActive = false;
-                    if (gameTimer != null) {
-                        gameTimer.stop();
-                    }
-                }
-            } else {
-                gameActive = false; // Temporarily disable input
+            return FIRST_PICK;
+        }
+
+        attempts++;
+        previousPick = firstCardIndex;
+        firstCardIndex = -1;
+        if (symbols[previousPick] == symbols[index]) {
+            matchedBits[previousPick >>> 6] |= 1L << previousPick;
+            matchedBits[index >>> 6] |= 1L << index;
+            pairsFound++;
+
+            if (pairsFound == cardCount / 2) {
+                gameActive = false;
             }
-            firstCardIndex = -1;
+            return MATCH;
         }
+        gameActive = false; // Temporarily disable input
+        return MISMATCH;
     }
-    
+
     public void flipNonMatchingCards(int index1, int index2) {
-        cards.get(index1).setFlipped(false);
-        cards.get(index2).setFlipped(false);
+        flippedBits[index1 >>> 6] &= ~(1L << index1);
+        flippedBits[index2 >>> 6] &= ~(1L << index2);
         gameActive = true;
     }
-    
-    public void setGameTimer(Timer timer) {
-        this.gameTimer = timer;
+
+    // Captures the mutable state of the current deal; the board itself is rebuilt from the seed
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    public void restore(Snapshot snapshot) {
+        if (snapshot.seed != seed || snapshot.matchedBits.length != matchedBits.length) {
+            throw new IllegalArgumentException("Snapshot belongs to a different board");
+        }
+        System.arraycopy(snapshot.matchedBits, 0, matchedBits, 0, matchedBits.length);
+        System.arraycopy(snapshot.flippedBits, 0, flippedBits, 0, flippedBits.length);
+        firstCardIndex = snapshot.firstCardIndex;
+        previousPick = snapshot.previousPick;
+        pairsFound = snapshot.pairsFound;
+        attempts = snapshot.attempts;
+        timeLeft = snapshot.timeLeft;
+        gameActive = snapshot.gameActive;
     }
-    
+
+    public static final class Snapshot {
+        private final long seed;
+        private final long[] matchedBits, flippedBits;
+        private final int firstCardIndex, previousPick, pairsFound, attempts, timeLeft;
+        private final boolean gameActive;
+
+        private Snapshot(GameModel model) {
+            seed = model.seed;
+            matchedBits = model.matchedBits.clone();
+            flippedBits = model.flippedBits.clone();
+            firstCardIndex = model.firstCardIndex;
+            previousPick = model.previousPick;
+            pairsFound = model.pairsFound;
+            attempts = model.attempts;
+            timeLeft = model.timeLeft;
+            gameActive = model.gameActive;
+        }
+
+        public int getAttempts() { return attempts; }
+        public int getPairsFound() { return pairsFound; }
+    }
+
     public void decrementTime() {
         timeLeft--;
         if (timeLeft <= 0) {
             gameActive = false;
-            if (gameTimer != null) {
-                gameTimer.stop();
-            }
         }
     }
-    
+
     public String getDifficultyText() {
         switch (gridSize) {
             case 4: return "Easy";
             case 6: return "Medium";
             case 8: return "Hard";
-            default: return "Custom";
+            default: return isHugeBoard() ? "Huge" : "Custom";
         }
     }
 
 	public void setAttempts(int i) {
 		// TODO Auto-generated method stub
 		this.attempts = i;
-		
+
 	}
 
 	public void setGameActive(boolean b) {
 		// TODO Auto-generated method stub
 		this.gameActive=b;
-		
+
 	}
 
 	public void setPairsFound(int i) {
 		// TODO Auto-generated method stub
 		this.pairsFound = i;
-		
+
 	}
 
 	public void setTimeLeft(int i) {
 		// TODO Auto-generated method stub
 		this.timeLeft = i;
-		
+
 	}
 
-	
 
-	
-}
\ No newline at end of file
+
+
+}
@@ -0,0 +1,70 @@
+package ModelClasses;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// A game journal read back into memory. A torn record at the end of the file is ignored.
+public class GameRecording {
+    private final int gridSize;
+    private final long seed;
+    private final long startMillis;
+    private final int[] cardIndexes;
+    private final int[] results;
+    private final int[] deltaMillis;
+
+    public GameRecording(int gridSize, long seed, long startMillis, int[] cardIndexes, int[] results, int[] deltaMillis) {
+        this.gridSize = gridSize;
+        this.seed = seed;
+        this.startMillis = startMillis;
+        this.cardIndexes = cardIndexes;
+        this.results = results;
+        this.deltaMillis = deltaMillis;
+    }
+
+    public static GameRecording load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < GameJournal.HEADER_SIZE) {
+                throw new IOException("Journal too short: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt() != GameJournal.MAGIC) {
+                throw new IOException("Not a game journal: " + file);
+            }
+            short version = buffer.getShort();
+            int recordSize = buffer.getShort();
+            if (version != GameJournal.VERSION || recordSize != GameJournal.RECORD_SIZE) {
+                throw new IOException("Unsupported journal version " + version + ": " + file);
+            }
+            int gridSize = buffer.getInt();
+            long seed = buffer.getLong();
+            long startMillis = buffer.getLong();
+            buffer.position(GameJournal.HEADER_SIZE);
+
+            int moves = (int) ((size - GameJournal.HEADER_SIZE) / recordSize);
+            int[] cardIndexes = new int[moves];
+            int[] results = new int[moves];
+            int[] deltaMillis = new int[moves];
+            for (int i = 0; i < moves; i++) {
+                deltaMillis[i] = buffer.getInt();
+                int packed = buffer.getInt();
+                cardIndexes[i] = packed >>> 2;
+                results[i] = packed & 3;
+            }
+            return new GameRecording(gridSize, seed, startMillis, cardIndexes, results, deltaMillis);
+        }
+    }
+
+    public int getGridSize() { return gridSize; }
+    public long getSeed() { return seed; }
+    public long getStartMillis() { return startMillis; }
+    public int getMoveCount() { return cardIndexes.length; }
+    public int getCardIndex(int move) { return cardIndexes[move]; }
+    public int getResult(int move) { return results[move]; }
+    public int getDeltaMillis(int move) { return deltaMillis[move]; }
+}
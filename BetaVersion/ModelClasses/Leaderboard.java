@@ -0,0 +1,181 @@
+package ModelClasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps the best `capacity` scores for each difficulty, and for each player as well when
+// perPlayer is set. Each board is a bounded heap with its worst entry at the root, so a score
+// that does not beat the floor is turned away in O(1) and one that does costs O(log k).
+public class Leaderboard {
+    private final int capacity;
+    private final boolean perPlayer;
+    private final Board[] boards = new Board[ScoreEntry.DIFFICULTIES.length];
+    private final List<Map<String, Board>> playerBoards = new ArrayList<>();
+    private long sequence;
+
+    public Leaderboard(int capacity, boolean perPlayer) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.perPlayer = perPlayer;
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = new Board(capacity);
+            playerBoards.add(new HashMap<>());
+        }
+    }
+
+    public int getCapacity() { return capacity; }
+    public boolean isPerPlayer() { return perPlayer; }
+
+    // Lets callers skip building an entry for a score that could not make any board
+    public boolean qualifies(int difficulty, String playerName, long sortKey) {
+        int d = clamp(difficulty);
+        if (boards[d].qualifies(sortKey)) {
+            return true;
+        }
+        if (!perPlayer) {
+            return false;
+        }
+        Board board = playerBoards.get(d).get(playerName);
+        return board == null || board.qualifies(sortKey);
+    }
+
+    // Returns true if the score made the difficulty board or, when tracked, the player's board
+    public boolean offer(ScoreEntry entry) {
+        int d = clamp(entry.getDifficulty());
+        long order = sequence++;
+        boolean placed = boards[d].offer(entry, order);
+        if (perPlayer) {
+            placed |= playerBoards.get(d).computeIfAbsent(entry.getPlayerName(), name -> new Board(capacity))
+                .offer(entry, order);
+        }
+        return placed;
+    }
+
+    public List<ScoreEntry> getTopScores(int difficulty) {
+        return boards[clamp(difficulty)].sorted();
+    }
+
+    public List<ScoreEntry> getTopScores(int difficulty, String playerName) {
+        Board board = playerBoards.get(clamp(difficulty)).get(playerName);
+        return board == null ? new ArrayList<>() : board.sorted();
+    }
+
+    // Everyone with a board of their own; empty unless perPlayer is set
+    public Set<String> getPlayers() {
+        Set<String> players = new LinkedHashSet<>();
+        for (Map<String, Board> boardsByPlayer : playerBoards) {
+            players.addAll(boardsByPlayer.keySet());
+        }
+        return players;
+    }
+
+    // Every difficulty board, best first within each, in difficulty order
+    public List<ScoreEntry> getAllTopScores() {
+        List<ScoreEntry> scores = new ArrayList<>();
+        for (Board board : boards) {
+            scores.addAll(board.sorted());
+        }
+        return scores;
+    }
+
+    private static int clamp(int difficulty) {
+        return difficulty >= 0 && difficulty < ScoreEntry.DIFFICULTIES.length
+            ? difficulty : ScoreEntry.DIFFICULTIES.length - 1;
+    }
+
+    // Max-heap on (sortKey, arrival order): the root is the worst score on the board, and on a
+    // tie the newer score counts as worse so earlier results keep their place
+    private static class Board {
+        private final ScoreEntry[] entries;
+        private final long[] orders;
+        private int size;
+
+        Board(int capacity) {
+            entries = new ScoreEntry[capacity];
+            orders = new long[capacity];
+        }
+
+        boolean qualifies(long sortKey) {
+            return size < entries.length || sortKey < entries[0].getSortKey();
+        }
+
+        boolean offer(ScoreEntry entry, long order) {
+            if (size < entries.length) {
+                entries[size] = entry;
+                orders[size] = order;
+                siftUp(size++);
+                return true;
+            }
+            if (!qualifies(entry.getSortKey())) {
+                return false;
+            }
+            entries[0] = entry;
+            orders[0] = order;
+            siftDown(0);
+            return true;
+        }
+
+        List<ScoreEntry> sorted() {
+            Integer[] slots = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                slots[i] = i;
+            }
+            Arrays.sort(slots, (a, b) -> worse(a, b) ? 1 : worse(b, a) ? -1 : 0);
+            List<ScoreEntry> scores = new ArrayList<>(size);
+            for (int slot : slots) {
+                scores.add(entries[slot]);
+            }
+            return scores;
+        }
+
+        private boolean worse(int a, int b) {
+            long keyA = entries[a].getSortKey();
+            long keyB = entries[b].getSortKey();
+            return keyA > keyB || (keyA == keyB && orders[a] > orders[b]);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!worse(i, parent)) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && worse(child + 1, child)) {
+                    child++;
+                }
+                if (!worse(child, i)) {
+                    break;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            ScoreEntry entry = entries[a];
+            entries[a] = entries[b];
+            entries[b] = entry;
+            long order = orders[a];
+            orders[a] = orders[b];
+            orders[b] = order;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ModelClasses;
+
+// One finished game, parsed once. Entries order by sortKey: fewest attempts first, then most
+// time left, so ranking never has to look at strings. The timestamp is epoch millis, or 0 for
+// scores carried over from before it was recorded.
+public final class ScoreEntry implements Comparable<ScoreEntry> {
+    public static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard", "Huge", "Custom"};
+
+    private final String playerName;
+    private final int difficulty;
+    private final int attempts;
+    private final int secondsLeft;
+    private final long timestamp;
+    private final long sortKey;
+
+    public ScoreEntry(String playerName, int difficulty, int attempts, int secondsLeft, long timestamp) {
+        this.playerName = playerName;
+        this.difficulty = difficulty;
+        this.attempts = attempts;
+        this.secondsLeft = secondsLeft;
+        this.timestamp = timestamp;
+        this.sortKey = sortKey(attempts, secondsLeft);
+    }
+
+    // A score from a game that just finished
+    public ScoreEntry(String playerName, String difficulty, int attempts, int secondsLeft) {
+        this(playerName, difficultyCode(difficulty), attempts, secondsLeft, System.currentTimeMillis());
+    }
+
+    // Reads "name,difficulty,attempts,mm:ss" and the old space-padded "name difficulty attempts"
+    // lines; returns null for anything else
+    public static ScoreEntry parse(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        String[] parts = trimmed.contains(",") ? trimmed.split(",") : trimmed.split("\\s+");
+        if (parts.length < 3) {
+            return null;
+        }
+        try {
+            int attempts = Integer.parseInt(parts[2].trim());
+            int secondsLeft = parts.length > 3 ? parseTime(parts[3]) : 0;
+            return new ScoreEntry(parts[0].trim(), difficultyCode(parts[1].trim()), attempts, secondsLeft, 0);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static long sortKey(int attempts, int secondsLeft) {
+        return (long) attempts << 32 | (Integer.MAX_VALUE - secondsLeft) & 0xFFFFFFFFL;
+    }
+
+    public static int attemptsOf(long sortKey) {
+        return (int) (sortKey >>> 32);
+    }
+
+    public static int secondsLeftOf(long sortKey) {
+        return Integer.MAX_VALUE - (int) sortKey;
+    }
+
+    public static int difficultyCode(String difficulty) {
+        for (int i = 0; i < DIFFICULTIES.length; i++) {
+            if (DIFFICULTIES[i].equalsIgnoreCase(difficulty)) {
+                return i;
+            }
+        }
+        return DIFFICULTIES.length - 1;
+    }
+
+    public static String difficultyName(int code) {
+        return code >= 0 && code < DIFFICULTIES.length ? DIFFICULTIES[code] : "Custom";
+    }
+
+    // "mm:ss" to seconds; anything unreadable counts as no time left
+    public static int parseTime(String time) {
+        int colon = time.indexOf(':');
+        try {
+            if (colon < 0) {
+                return Integer.parseInt(time.trim());
+            }
+            return Integer.parseInt(time.substring(0, colon).trim()) * 60 + Integer.parseInt(time.substring(colon + 1).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public static String formatTime(int seconds) {
+        return String.format("%02d:%02d", seconds / 60, seconds % 60);
+    }
+
+    public String getPlayerName() { return playerName; }
+    public int getDifficulty() { return difficulty; }
+    public String getDifficultyText() { return difficultyName(difficulty); }
+    public int getAttempts() { return attempts; }
+    public int getSecondsLeft() { return secondsLeft; }
+    public String getTimeLeftText() { return formatTime(secondsLeft); }
+    public long getTimestamp() { return timestamp; }
+    public long getSortKey() { return sortKey; }
+
+    @Override
+    public int compareTo(ScoreEntry other) {
+        return Long.compare(sortKey, other.sortKey);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s,%s,%d,%s", playerName, getDifficultyText(), attempts, getTimeLeftText());
+    }
+}
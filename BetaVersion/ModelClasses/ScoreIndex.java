@@ -0,0 +1,338 @@
+package ModelClasses;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Secondary indexes over the whole score history, so a query like "best 10 for deva on Hard this
+// week" never scans it. Every score is a row in primitive column arrays, and posting lists of row
+// ids are kept sorted per difficulty by time and by rank, and per player and difficulty by time.
+//
+// A query for one player scans that player's slice of the time window. A query over everyone
+// either scans the time window or walks the rank order until `limit` rows fall inside the
+// window, whichever should touch fewer rows. Posting lists take new rows into a small sorted
+// delta that is merged into the main array once it fills, so additions stay cheap.
+//
+// Costs about 33 bytes of heap per score. Not thread-safe; ScoreManager guards it.
+public class ScoreIndex {
+    private static final int DIFFICULTIES = ScoreEntry.DIFFICULTIES.length;
+    private static final int DELTA_LIMIT = 1024;
+
+    private final ScoreStore store;
+    private long[] keys = new long[DELTA_LIMIT];
+    private long[] times = new long[DELTA_LIMIT];
+    private int[] players = new int[DELTA_LIMIT];
+    private byte[] difficulties = new byte[DELTA_LIMIT];
+    private int rows;
+
+    private final Postings[] byTime = new Postings[DIFFICULTIES];
+    private final Postings[] byRank = new Postings[DIFFICULTIES];
+    private final Map<Integer, Postings[]> playerTimes = new HashMap<>();
+
+    private ScoreIndex(ScoreStore store) {
+        this.store = store;
+    }
+
+    // Covers the first `limit` scores in the store
+    public static ScoreIndex build(ScoreStore store, long limit) throws IOException {
+        ScoreIndex index = new ScoreIndex(store);
+        store.forEach(0, limit, (nameId, difficulty, attempts, secondsLeft, timestamp) ->
+            index.addRow(nameId, difficulty, ScoreEntry.sortKey(attempts, secondsLeft), timestamp));
+
+        // One sort per list instead of one insertion per row
+        int[][] timeRows = new int[DIFFICULTIES][];
+        int[] counts = new int[DIFFICULTIES];
+        for (int row = 0; row < index.rows; row++) {
+            counts[index.difficulties[row]]++;
+        }
+        for (int d = 0; d < DIFFICULTIES; d++) {
+            timeRows[d] = new int[counts[d]];
+            counts[d] = 0;
+        }
+        Map<Integer, int[]> playerCounts = new HashMap<>();
+        for (int row = 0; row < index.rows; row++) {
+            int d = index.difficulties[row];
+            timeRows[d][counts[d]++] = row;
+            playerCounts.computeIfAbsent(index.players[row], id -> new int[DIFFICULTIES])[d]++;
+        }
+        for (int d = 0; d < DIFFICULTIES; d++) {
+            int[] rank = timeRows[d].clone();
+            index.sortRows(timeRows[d], index.times);
+            index.sortRows(rank, index.keys);
+            index.byTime[d] = index.new Postings(true, timeRows[d]);
+            index.byRank[d] = index.new Postings(false, rank);
+        }
+
+        Map<Integer, int[][]> playerRows = new HashMap<>();
+        for (Map.Entry<Integer, int[]> entry : playerCounts.entrySet()) {
+            int[][] lists = new int[DIFFICULTIES][];
+            for (int d = 0; d < DIFFICULTIES; d++) {
+                lists[d] = new int[entry.getValue()[d]];
+                entry.getValue()[d] = 0;
+            }
+            playerRows.put(entry.getKey(), lists);
+        }
+        // Walking the time-sorted lists keeps each player's slice sorted by time as well
+        for (int d = 0; d < DIFFICULTIES; d++) {
+            for (int row : timeRows[d]) {
+                int player = index.players[row];
+                playerRows.get(player)[d][playerCounts.get(player)[d]++] = row;
+            }
+        }
+        for (Map.Entry<Integer, int[][]> entry : playerRows.entrySet()) {
+            Postings[] lists = new Postings[DIFFICULTIES];
+            for (int d = 0; d < DIFFICULTIES; d++) {
+                lists[d] = index.new Postings(true, entry.getValue()[d]);
+            }
+            index.playerTimes.put(entry.getKey(), lists);
+        }
+        return index;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    // The score must already be in the store, so its player name has an id
+    public void add(ScoreEntry entry) {
+        int nameId = store.nameIdOf(entry.getPlayerName());
+        if (nameId < 0) {
+            return;
+        }
+        int d = clamp(entry.getDifficulty());
+        int row = addRow(nameId, d, entry.getSortKey(), entry.getTimestamp());
+        byTime[d].add(row);
+        byRank[d].add(row);
+        playerTimes.computeIfAbsent(nameId, id -> newPlayerPostings())[d].add(row);
+    }
+
+    public List<ScoreEntry> find(ScoreQuery query) {
+        TopRows top = new TopRows(query.getLimit());
+        int first = query.getDifficulty() == ScoreQuery.ANY_DIFFICULTY ? 0 : clamp(query.getDifficulty());
+        int last = query.getDifficulty() == ScoreQuery.ANY_DIFFICULTY ? DIFFICULTIES - 1 : first;
+
+        if (query.getPlayerName() != null) {
+            Postings[] lists = playerTimes.get(store.nameIdOf(query.getPlayerName()));
+            if (lists != null) {
+                for (int d = first; d <= last; d++) {
+                    lists[d].scanTimes(query.getFrom(), query.getTo(), top);
+                }
+            }
+        } else {
+            for (int d = first; d <= last; d++) {
+                long inWindow = byTime[d].countTimes(query.getFrom(), query.getTo());
+                if (inWindow == 0) {
+                    continue;
+                }
+                // Walking rank order needs about limit * total / inWindow steps
+                if (inWindow * inWindow <= (long) query.getLimit() * byTime[d].size()) {
+                    byTime[d].scanTimes(query.getFrom(), query.getTo(), top);
+                } else {
+                    byRank[d].walkRanks(query.getFrom(), query.getTo(), top);
+                }
+            }
+        }
+
+        List<ScoreEntry> scores = new ArrayList<>(top.size);
+        for (int i = 0; i < top.size; i++) {
+            int row = top.rows[i];
+            long key = keys[row];
+            scores.add(new ScoreEntry(store.getName(players[row]), difficulties[row],
+                ScoreEntry.attemptsOf(key), ScoreEntry.secondsLeftOf(key), times[row]));
+        }
+        return scores;
+    }
+
+    private int addRow(int nameId, int difficulty, long key, long time) {
+        if (rows == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            times = Arrays.copyOf(times, capacity);
+            players = Arrays.copyOf(players, capacity);
+            difficulties = Arrays.copyOf(difficulties, capacity);
+        }
+        keys[rows] = key;
+        times[rows] = time;
+        players[rows] = nameId;
+        difficulties[rows] = (byte) clamp(difficulty);
+        return rows++;
+    }
+
+    private Postings[] newPlayerPostings() {
+        Postings[] lists = new Postings[DIFFICULTIES];
+        for (int d = 0; d < DIFFICULTIES; d++) {
+            lists[d] = new Postings(true, new int[0]);
+        }
+        return lists;
+    }
+
+    private static int clamp(int difficulty) {
+        return difficulty >= 0 && difficulty < DIFFICULTIES ? difficulty : DIFFICULTIES - 1;
+    }
+
+    // Stable bottom-up merge sort of row ids by a column; rows arrive ascending, so ties stay in row order
+    private void sortRows(int[] list, long[] column) {
+        int[] buffer = new int[list.length];
+        int[] from = list;
+        int[] to = buffer;
+        for (int width = 1; width < list.length; width *= 2) {
+            for (int lo = 0; lo < list.length; lo += 2 * width) {
+                int mid = Math.min(lo + width, list.length);
+                int hi = Math.min(lo + 2 * width, list.length);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    to[k++] = column[from[j]] < column[from[i]] ? from[j++] : from[i++];
+                }
+                while (i < mid) to[k++] = from[i++];
+                while (j < hi) to[k++] = from[j++];
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != list) {
+            System.arraycopy(from, 0, list, 0, list.length);
+        }
+    }
+
+    // Best rows seen so far, kept sorted by (sortKey, row)
+    private final class TopRows {
+        final int[] rows;
+        int size;
+
+        TopRows(int limit) {
+            rows = new int[limit];
+        }
+
+        boolean full() {
+            return size == rows.length;
+        }
+
+        void offer(int row) {
+            if (full() && !before(row, rows[size - 1])) {
+                return;
+            }
+            int i = full() ? size - 1 : size++;
+            while (i > 0 && before(row, rows[i - 1])) {
+                rows[i] = rows[i - 1];
+                i--;
+            }
+            rows[i] = row;
+        }
+
+        private boolean before(int a, int b) {
+            return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+        }
+    }
+
+    // Row ids sorted by one column: a main array plus a small sorted delta for recent additions
+    private final class Postings {
+        private final boolean byTime;
+        private int[] main;
+        private final int[] delta = new int[DELTA_LIMIT];
+        private int deltaSize;
+
+        Postings(boolean byTime, int[] sortedRows) {
+            this.byTime = byTime;
+            this.main = sortedRows;
+        }
+
+        int size() {
+            return main.length + deltaSize;
+        }
+
+        private long key(int row) {
+            return byTime ? times[row] : keys[row];
+        }
+
+        // New rows always have the highest id, so they go after any equal keys
+        void add(int row) {
+            long key = key(row);
+            int i = deltaSize++;
+            while (i > 0 && key(delta[i - 1]) > key) {
+                delta[i] = delta[i - 1];
+                i--;
+            }
+            delta[i] = row;
+            if (deltaSize == DELTA_LIMIT) {
+                mergeDelta();
+            }
+        }
+
+        private void mergeDelta() {
+            int[] merged = new int[main.length + deltaSize];
+            int i = 0, j = 0, k = 0;
+            while (i < main.length && j < deltaSize) {
+                long a = key(main[i]);
+                long b = key(delta[j]);
+                merged[k++] = b < a || (b == a && delta[j] < main[i]) ? delta[j++] : main[i++];
+            }
+            while (i < main.length) merged[k++] = main[i++];
+            while (j < deltaSize) merged[k++] = delta[j++];
+            main = merged;
+            deltaSize = 0;
+        }
+
+        // First index in main whose key is >= value
+        private int lowerBound(long value) {
+            int lo = 0, hi = main.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (key(main[mid]) < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        long countTimes(long from, long to) {
+            long count = lowerBound(to) - lowerBound(from);
+            for (int i = 0; i < deltaSize; i++) {
+                long time = times[delta[i]];
+                if (time >= from && time < to) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        void scanTimes(long from, long to, TopRows top) {
+            for (int i = lowerBound(from), end = lowerBound(to); i < end; i++) {
+                top.offer(main[i]);
+            }
+            for (int i = 0; i < deltaSize; i++) {
+                long time = times[delta[i]];
+                if (time >= from && time < to) {
+                    top.offer(delta[i]);
+                }
+            }
+        }
+
+        // Visits rows best-first, merging main and delta, and stops once limit of them were in the window
+        void walkRanks(long from, long to, TopRows top) {
+            int i = 0, j = 0, found = 0;
+            while (found < top.rows.length && (i < main.length || j < deltaSize)) {
+                int row;
+                if (j >= deltaSize) {
+                    row = main[i++];
+                } else if (i >= main.length) {
+                    row = delta[j++];
+                } else {
+                    long a = keys[main[i]];
+                    long b = keys[delta[j]];
+                    row = b < a || (b == a && delta[j] < main[i]) ? delta[j++] : main[i++];
+                }
+                long time = times[row];
+                if (time >= from && time < to) {
+                    top.offer(row);
+                    found++;
+                }
+            }
+        }
+    }
+}
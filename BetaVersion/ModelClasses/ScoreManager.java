@@ -6,77 +6,238 @@ import java.util.*;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
+// Safe to share between any number of threads. Scores are handed to the writer thread without
+// locking. The boards, ranks and index are only updated by refresh(), which reads whatever was
+// appended to the store since the last refresh, and the boards are then published as an immutable
+// snapshot that readers take with one volatile read. Ranks are locked per difficulty, so a
+// lookup only waits on a refresh of the same difficulty.
+//
+// Refresh runs after every commit of this process, and whenever the store directory changes, so
+// several instances sharing one directory see each other's scores without re-reading it.
 public class ScoreManager {
-    private static final String SCORES_FILE = "highscores.txt";
-    private List<String> highScores;
-    
+    public static final int BOARD_SIZE = 10;
+
+    private ScoreStore store;
+    private ScoreWriter writer;
+    private ScoreWatcher watcher;
+    private final Leaderboard leaderboard;
+    private long position;
+    private volatile Snapshot snapshot;
+    private final Map<String, List<List<ScoreEntry>>> playerSnapshots = new ConcurrentHashMap<>();
+    private final Object[] rankStripes = new Object[ScoreEntry.DIFFICULTIES.length];
+    private ScoreRanks ranks = new ScoreRanks();
+    private final Object indexLock = new Object();
+    private ScoreIndex index;
+
+    // The boards as of the latest refresh; nothing in it changes after it is published
+    private static final class Snapshot {
+        final List<ScoreEntry> all;
+        final List<List<ScoreEntry>> byDifficulty;
+
+        Snapshot(List<List<ScoreEntry>> byDifficulty) {
+            List<ScoreEntry> all = new ArrayList<>();
+            for (List<ScoreEntry> scores : byDifficulty) {
+                all.addAll(scores);
+            }
+            this.all = Collections.unmodifiableList(all);
+            this.byDifficulty = Collections.unmodifiableList(byDifficulty);
+        }
+    }
+
     public ScoreManager() {
-        highScores = new ArrayList<>();
+        this(BOARD_SIZE, false);
+    }
+
+    public ScoreManager(int boardSize, boolean perPlayer) {
+        leaderboard = new Leaderboard(boardSize, perPlayer);
+        for (int d = 0; d < rankStripes.length; d++) {
+            rankStripes[d] = new Object();
+        }
         loadHighScores();
+        synchronized (leaderboard) {
+            publish(null);
+        }
     }
-    
-    public void addScore(String playerName, String difficulty, int attempts, String timeLeft) {
-        String scoreEntry = String.format("%s,%s,%d,%s", playerName, difficulty, attempts, timeLeft);
-        highScores.add(scoreEntry);
-        Collections.sort(highScores, new ScoreComparator());
-        if (highScores.size() > 10) {
-            highScores = highScores.subList(0, 10);
+
+    // Returns at once; the future completes on the score writer thread when the score is on
+    // disk and on the leaderboard
+    public CompletableFuture<ScoreEntry> addScore(ScoreEntry scoreEntry) {
+        if (writer == null) {
+            addToLeaderboard(Collections.singletonList(scoreEntry));
+            return CompletableFuture.completedFuture(scoreEntry);
+        }
+        return writer.submit(scoreEntry);
+    }
+
+    // Every difficulty's board, one after another. The returned lists are read-only snapshots.
+    public List<ScoreEntry> getHighScores() {
+        return snapshot.all;
+    }
+
+    public List<ScoreEntry> getHighScores(int difficulty) {
+        return snapshot.byDifficulty.get(clamp(difficulty));
+    }
+
+    public List<ScoreEntry> getHighScores(int difficulty, String playerName) {
+        List<List<ScoreEntry>> boards = playerSnapshots.get(playerName);
+        return boards == null ? Collections.emptyList() : boards.get(clamp(difficulty));
+    }
+
+    // Where the score places among every recorded score on its difficulty
+    public ScoreRanks.Rank getRank(ScoreEntry scoreEntry) {
+        synchronized (rankStripes[clamp(scoreEntry.getDifficulty())]) {
+            return ranks.rankOf(scoreEntry);
         }
-        saveHighScores();
     }
     
-    public List<String> getHighScores() {
-        return highScores;
+    // Built on the first query, then kept up to date by every refresh
+    public List<ScoreEntry> query(ScoreQuery query) {
+        if (writer == null) {
+            return new ArrayList<>();
+        }
+        synchronized (indexLock) {
+            if (index != null) {
+                return index.find(query);
+            }
+        }
+        // Refreshes add to the index while holding the leaderboard, so building under it covers
+        // exactly the scores before position
+        synchronized (leaderboard) {
+            synchronized (indexLock) {
+                if (index == null) {
+                    try {
+                        index = ScoreIndex.build(store, position);
+                    } catch (IOException e) {
+                        System.err.println("Error indexing scores: " + e.getMessage());
+                        return new ArrayList<>();
+                    }
+                }
+                return index.find(query);
+            }
+        }
     }
     
+    // Brings the boards, ranks and index up to date with every score appended to the store since
+    // the last refresh, by this process or another one
+    public void refresh() {
+        if (store == null) {
+            return;
+        }
+        synchronized (leaderboard) {
+            List<ScoreEntry> added = new ArrayList<>();
+            try {
+                position = store.forEach(position, Long.MAX_VALUE, (nameId, difficulty, attempts, secondsLeft, timestamp) ->
+                    added.add(new ScoreEntry(store.getName(nameId), difficulty, attempts, secondsLeft, timestamp)));
+            } catch (IOException e) {
+                System.err.println("Error refreshing scores: " + e.getMessage());
+                return;
+            }
+            if (!added.isEmpty()) {
+                addToLeaderboard(added);
+            }
+        }
+    }
+
     private void loadHighScores() {
+        Path directory = Paths.get(System.getProperty("user.dir"));
         try {
-            Path filePath = Paths.get(System.getProperty("user.dir"), SCORES_FILE);
-            if (Files.exists(filePath)) {
-                highScores = Files.readAllLines(filePath);
-            }
+            store = ScoreStore.open(directory);
+            position = store.fill(leaderboard);
+            ranks = ScoreRanks.build(store, position);
+            writer = new ScoreWriter(store, committed -> refresh());
         } catch (IOException e) {
             System.err.println("Error loading scores: " + e.getMessage());
+            return;
+        }
+        try {
+            watcher = new ScoreWatcher(directory, this::refresh);
+        } catch (IOException e) {
+            System.err.println("Error watching scores: " + e.getMessage());
         }
     }
-    
-    private void saveHighScores() {
+
+    // Commits queued scores and folds them into the store; the manager should not be used afterwards
+    public void close() {
+        if (store == null) {
+            return;
+        }
+        if (watcher != null) {
+            watcher.close();
+        }
+        writer.close();
         try {
-            Path filePath = Paths.get(System.getProperty("user.dir"), SCORES_FILE);
-            Files.write(filePath, highScores, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            store.close();
         } catch (IOException e) {
-            System.err.println("Error saving scores: " + e.getMessage());
+            System.err.println("Error closing scores: " + e.getMessage());
         }
     }
-    
-    private static class ScoreComparator implements Comparator<String> {
-        @Override
-        public int compare(String s1, String s2) {
-            String[] parts1 = s1.split(",");
-            String[] parts2 = s2.split(",");
-            
-            if (parts1.length < 4 || parts2.length < 4) return 0;
-            
-            try {
-                int attempts1 = Integer.parseInt(parts1[2]);
-                int attempts2 = Integer.parseInt(parts2[2]);
-                if (attempts1 != attempts2) return Integer.compare(attempts1, attempts2);
-                
-                String[] time1 = parts1[3].split(":");
-                String[] time2 = parts2[3].split(":");
-                int min1 = Integer.parseInt(time1[0]);
-                int sec1 = Integer.parseInt(time1[1]);
-                int min2 = Integer.parseInt(time2[0]);
-                int sec2 = Integer.parseInt(time2[1]);
-                
-                int totalSec1 = min1 * 60 + sec1;
-                int totalSec2 = min2 * 60 + sec2;
-                
-                return Integer.compare(totalSec2, totalSec1);
-            } catch (Exception e) {
-                return 0;
+
+    // Only refresh() gets here, unless the store failed to open
+    private void addToLeaderboard(List<ScoreEntry> scores) {
+        synchronized (leaderboard) {
+            boolean[] changed = new boolean[ScoreEntry.DIFFICULTIES.length];
+            for (ScoreEntry score : scores) {
+                int d = clamp(score.getDifficulty());
+                if (leaderboard.offer(score)) {
+                    changed[d] = true;
+                    if (leaderboard.isPerPlayer()) {
+                        publishPlayer(score.getPlayerName(), d);
+                    }
+                }
+                synchronized (rankStripes[d]) {
+                    ranks.add(score);
+                }
+            }
+            publish(changed);
+        }
+        synchronized (indexLock) {
+            if (index != null) {
+                for (ScoreEntry score : scores) {
+                    index.add(score);
+                }
+            }
+        }
+    }
+
+    // Rebuilds the changed difficulties' lists (all of them when changed is null) and swaps them in
+    private void publish(boolean[] changed) {
+        Snapshot current = snapshot;
+        List<List<ScoreEntry>> boards = new ArrayList<>(ScoreEntry.DIFFICULTIES.length);
+        for (int d = 0; d < ScoreEntry.DIFFICULTIES.length; d++) {
+            boolean rebuild = changed == null || changed[d];
+            if (!rebuild && current != null) {
+                boards.add(current.byDifficulty.get(d));
+            } else {
+                boards.add(Collections.unmodifiableList(leaderboard.getTopScores(d)));
             }
         }
+        if (changed == null && leaderboard.isPerPlayer()) {
+            for (String playerName : leaderboard.getPlayers()) {
+                publishPlayer(playerName, -1);
+            }
+        }
+        snapshot = new Snapshot(boards);
+    }
+
+    // difficulty -1 rebuilds every board of the player
+    private void publishPlayer(String playerName, int difficulty) {
+        List<List<ScoreEntry>> current = playerSnapshots.get(playerName);
+        List<List<ScoreEntry>> boards = new ArrayList<>(ScoreEntry.DIFFICULTIES.length);
+        for (int d = 0; d < ScoreEntry.DIFFICULTIES.length; d++) {
+            if (difficulty < 0 || d == difficulty || current == null) {
+                boards.add(Collections.unmodifiableList(leaderboard.getTopScores(d, playerName)));
+            } else {
+                boards.add(current.get(d));
+            }
+        }
+        playerSnapshots.put(playerName, Collections.unmodifiableList(boards));
+    }
+
+    private static int clamp(int difficulty) {
+        return difficulty >= 0 && difficulty < ScoreEntry.DIFFICULTIES.length
+            ? difficulty : ScoreEntry.DIFFICULTIES.length - 1;
     }
-}
\ No newline at end of file
+}
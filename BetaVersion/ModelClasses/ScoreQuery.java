@@ -0,0 +1,47 @@
+package ModelClasses;
+
+// What to look up in a ScoreIndex: the best `limit` scores, optionally narrowed to one player,
+// one difficulty and a [from, to) window of epoch millis, e.g.
+//   ScoreQuery.best(10).forPlayer("deva").onDifficulty(2).between(weekStart, now)
+public final class ScoreQuery {
+    public static final int ANY_DIFFICULTY = -1;
+
+    private final int limit;
+    private final String playerName;
+    private final int difficulty;
+    private final long from;
+    private final long to;
+
+    private ScoreQuery(int limit, String playerName, int difficulty, long from, long to) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        this.limit = limit;
+        this.playerName = playerName;
+        this.difficulty = difficulty;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static ScoreQuery best(int limit) {
+        return new ScoreQuery(limit, null, ANY_DIFFICULTY, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public ScoreQuery forPlayer(String playerName) {
+        return new ScoreQuery(limit, playerName, difficulty, from, to);
+    }
+
+    public ScoreQuery onDifficulty(int difficulty) {
+        return new ScoreQuery(limit, playerName, difficulty, from, to);
+    }
+
+    public ScoreQuery between(long from, long to) {
+        return new ScoreQuery(limit, playerName, difficulty, from, to);
+    }
+
+    public int getLimit() { return limit; }
+    public String getPlayerName() { return playerName; }
+    public int getDifficulty() { return difficulty; }
+    public long getFrom() { return from; }
+    public long getTo() { return to; }
+}
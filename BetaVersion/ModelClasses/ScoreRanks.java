@@ -0,0 +1,105 @@
+package ModelClasses;
+
+import java.io.IOException;
+
+// Order statistics over every score ever recorded, per difficulty. Scores fall into buckets by
+// (attempts, seconds left) laid out best-first, and a Fenwick tree over the bucket counts gives
+// "how many scores beat this one" in O(log buckets), as does recording a new score.
+//
+// Attempts past ATTEMPT_BUCKETS - 1 and seconds past SECOND_BUCKETS - 1 share the last bucket,
+// so ranks are exact for every score a real game produces. A difficulty's tree (2 MB) is only
+// allocated once it has a score. Not thread-safe; ScoreManager guards it.
+public class ScoreRanks {
+    public static final int ATTEMPT_BUCKETS = 2048;
+    public static final int SECOND_BUCKETS = 256;
+    private static final int BUCKETS = ATTEMPT_BUCKETS * SECOND_BUCKETS;
+
+    private final int[][] trees = new int[ScoreEntry.DIFFICULTIES.length][];
+    private final long[] totals = new long[ScoreEntry.DIFFICULTIES.length];
+
+    public static class Rank {
+        private final long position;
+        private final long total;
+
+        Rank(long position, long total) {
+            this.position = position;
+            this.total = total;
+        }
+
+        // 1 for the best score; equal scores share a position
+        public long getPosition() { return position; }
+        public long getTotal() { return total; }
+
+        public double getTopPercent() {
+            return total == 0 ? 100.0 : 100.0 * position / total;
+        }
+    }
+
+    // Covers the first `limit` scores in the store
+    public static ScoreRanks build(ScoreStore store, long limit) throws IOException {
+        ScoreRanks ranks = new ScoreRanks();
+        // Count into plain buckets first, then turn each array into a Fenwick tree in O(n)
+        store.forEach(0, limit, (nameId, difficulty, attempts, secondsLeft, timestamp) -> {
+            int d = clamp(difficulty);
+            ranks.tree(d)[bucket(attempts, secondsLeft) + 1]++;
+            ranks.totals[d]++;
+        });
+        for (int[] tree : ranks.trees) {
+            if (tree == null) {
+                continue;
+            }
+            for (int i = 1; i <= BUCKETS; i++) {
+                int parent = i + (i & -i);
+                if (parent <= BUCKETS) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+        return ranks;
+    }
+
+    public void add(ScoreEntry entry) {
+        int d = clamp(entry.getDifficulty());
+        int[] tree = tree(d);
+        for (int i = bucket(entry.getAttempts(), entry.getSecondsLeft()) + 1; i <= BUCKETS; i += i & -i) {
+            tree[i]++;
+        }
+        totals[d]++;
+    }
+
+    public long count(int difficulty) {
+        return totals[clamp(difficulty)];
+    }
+
+    // Where the entry would place among every recorded score on its difficulty, counting itself
+    public Rank rankOf(ScoreEntry entry) {
+        int d = clamp(entry.getDifficulty());
+        long better = 0;
+        int[] tree = trees[d];
+        if (tree != null) {
+            for (int i = bucket(entry.getAttempts(), entry.getSecondsLeft()); i > 0; i -= i & -i) {
+                better += tree[i];
+            }
+        }
+        return new Rank(better + 1, totals[d] + 1);
+    }
+
+    private int[] tree(int difficulty) {
+        if (trees[difficulty] == null) {
+            trees[difficulty] = new int[BUCKETS + 1];
+        }
+        return trees[difficulty];
+    }
+
+    // Fewer attempts first, then more time left
+    private static int bucket(int attempts, int secondsLeft) {
+        int a = Math.max(0, Math.min(ATTEMPT_BUCKETS - 1, attempts));
+        int s = Math.max(0, Math.min(SECOND_BUCKETS - 1, secondsLeft));
+        return a * SECOND_BUCKETS + (SECOND_BUCKETS - 1 - s);
+    }
+
+    private static int clamp(int difficulty) {
+        return difficulty >= 0 && difficulty < ScoreEntry.DIFFICULTIES.length
+            ? difficulty : ScoreEntry.DIFFICULTIES.length - 1;
+    }
+}
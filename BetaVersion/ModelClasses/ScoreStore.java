@@ -0,0 +1,559 @@
+package ModelClasses;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+// Versioned binary score history. Three files live next to each other:
+//
+//   highscores.dat    header (MAGIC, VERSION, RECORD_SIZE, reserved) followed by fixed-width records
+//                     int nameId, int difficulty code, int attempts, int seconds left, long epoch millis
+//   highscores.log    header (LOG_MAGIC, VERSION, LOG_RECORD_SIZE, records folded into .dat) followed
+//                     by the same records, each with a CRC32 so a torn write is recognised
+//   highscores.names  header (NAMES_MAGIC, NAMES_VERSION) followed by short length + UTF-8 bytes per name;
+//                     a name's id is its position in this file
+//   highscores.migrated  one byte, written once highscores.txt has been copied in and synced
+//
+// New scores only ever append to the log. A shared background thread fsyncs dirty logs in
+// batches and folds them into the record file, and opening a store replays whatever log tail an
+// earlier run left behind. Reads map the record file, so scanning millions of scores is a pass
+// over memory with no per-record objects. An existing highscores.txt is migrated once, including
+// the old space-padded lines; a migration cut short by a crash finishes on the next open.
+public class ScoreStore {
+    public static final String RECORDS_FILE = "highscores.dat";
+    public static final String LOG_FILE = "highscores.log";
+    public static final String NAMES_FILE = "highscores.names";
+    public static final String LEGACY_FILE = "highscores.txt";
+    public static final String MIGRATED_FILE = "highscores.migrated";
+
+    public static final int MAGIC = 0x4D435353; // "MCSS"
+    public static final int LOG_MAGIC = 0x4D43534C; // "MCSL"
+    public static final int NAMES_MAGIC = 0x4D43534E; // "MCSN"
+    public static final short VERSION = 1;
+    public static final short NAMES_VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 24;
+    public static final int LOG_RECORD_SIZE = RECORD_SIZE + 4;
+    public static final int COMPACT_THRESHOLD = 1024;
+
+    private static final long SYNC_INTERVAL_NANOS = 50_000_000L;
+    private static final long COMPACT_IDLE_NANOS = 5_000_000_000L;
+    private static final int FOLD_CHUNK = 4096;
+
+    // FileLock guards other processes; these guard other stores on the same files in this JVM
+    private static final Map<Path, Object> JVM_LOCKS = new ConcurrentHashMap<>();
+    private static final Set<ScoreStore> OPEN = ConcurrentHashMap.newKeySet();
+    private static Thread compactorThread;
+
+    public interface ScoreVisitor {
+        void visit(int nameId, int difficulty, int attempts, int secondsLeft, long timestamp);
+    }
+
+    private final Path recordsFile;
+    private final Path logFile;
+    private final Path namesFile;
+    private final Object logLock;
+    private final Object namesLock;
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final ByteBuffer logRecord = ByteBuffer.allocate(LOG_RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private long namesOffset;
+    private FileChannel log;
+    private volatile boolean dirty;
+    private volatile long lastAppendNanos;
+
+    private ScoreStore(Path directory) {
+        this.recordsFile = directory.resolve(RECORDS_FILE);
+        this.logFile = directory.resolve(LOG_FILE);
+        this.namesFile = directory.resolve(NAMES_FILE);
+        this.logLock = JVM_LOCKS.computeIfAbsent(logFile.toAbsolutePath(), path -> new Object());
+        this.namesLock = JVM_LOCKS.computeIfAbsent(namesFile.toAbsolutePath(), path -> new Object());
+    }
+
+    public static ScoreStore open(Path directory) throws IOException {
+        ScoreStore store = new ScoreStore(directory);
+        store.createIfMissing();
+        store.readNewNames();
+        store.log = FileChannel.open(store.logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        store.compact();
+        Path legacy = directory.resolve(LEGACY_FILE);
+        if (Files.exists(legacy)) {
+            store.migrate(legacy, directory.resolve(MIGRATED_FILE));
+        }
+        OPEN.add(store);
+        startCompactor();
+        return store;
+    }
+
+    public synchronized String getName(int nameId) {
+        if (nameId >= names.size()) {
+            try {
+                readNewNames();
+            } catch (IOException e) {
+                System.err.println("Error reading player names: " + e.getMessage());
+            }
+        }
+        return nameId < names.size() ? names.get(nameId) : "?";
+    }
+
+    // -1 until the name has been used in a score
+    public synchronized int nameIdOf(String name) {
+        Integer id = nameIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public long size() throws IOException {
+        return forEach(Long.MAX_VALUE, Long.MAX_VALUE, (nameId, difficulty, attempts, secondsLeft, timestamp) -> { });
+    }
+
+    // Visits every score in append order: the folded records first, then the log. A torn
+    // record at the end of either file is skipped. Returns how many scores there were.
+    public long forEach(ScoreVisitor visitor) throws IOException {
+        return forEach(0, Long.MAX_VALUE, visitor);
+    }
+
+    // Visits only the scores at positions [from, to) of the append order and returns the
+    // position after the last one visited. A score keeps its position when the log is folded,
+    // so a reader that remembers the returned position later reads just what was appended since.
+    public long forEach(long from, long to, ScoreVisitor visitor) throws IOException {
+        long folded;
+        ByteBuffer pending;
+        synchronized (logLock) {
+            FileLock lock = log.lock();
+            try {
+                folded = readFoldedCount();
+                pending = ByteBuffer.allocate((int) (logRecordCount() * LOG_RECORD_SIZE));
+                readFully(log, pending, HEADER_SIZE);
+                pending.flip();
+                if (!pending.hasRemaining()) {
+                    // Nothing waits in the log, so everything in the record file counts
+                    folded = Long.MAX_VALUE;
+                }
+            } finally {
+                lock.release();
+            }
+        }
+
+        long position;
+        try (FileChannel channel = FileChannel.open(recordsFile, StandardOpenOption.READ)) {
+            position = Math.min(folded, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+            long first = Math.max(0, Math.min(from, position));
+            long last = Math.min(to, position);
+            if (first < last) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE + last * RECORD_SIZE);
+                buffer.order(ByteOrder.BIG_ENDIAN);
+                checkHeader(buffer);
+                buffer.position((int) (HEADER_SIZE + first * RECORD_SIZE));
+                for (long i = first; i < last; i++) {
+                    visitor.visit(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong());
+                }
+            }
+        }
+        if (position >= to) {
+            return to;
+        }
+
+        CRC32 check = new CRC32();
+        while (pending.remaining() >= LOG_RECORD_SIZE && position < to) {
+            if (!validLogRecord(pending, check)) {
+                pending.position(pending.position() + LOG_RECORD_SIZE);
+            } else if (position++ < from) {
+                pending.position(pending.position() + LOG_RECORD_SIZE);
+            } else {
+                visitor.visit(pending.getInt(), pending.getInt(), pending.getInt(), pending.getInt(), pending.getLong());
+                pending.getInt();
+            }
+        }
+        return position;
+    }
+
+    // Feeds the whole history into a leaderboard and returns how many scores that was. The floor
+    // check runs on the raw ints, so only scores that can still place ever become entries.
+    public long fill(Leaderboard leaderboard) throws IOException {
+        return forEach((nameId, difficulty, attempts, secondsLeft, timestamp) -> {
+            String playerName = leaderboard.isPerPlayer() ? getName(nameId) : null;
+            if (leaderboard.qualifies(difficulty, playerName, ScoreEntry.sortKey(attempts, secondsLeft))) {
+                leaderboard.offer(new ScoreEntry(getName(nameId), difficulty, attempts, secondsLeft, timestamp));
+            }
+        });
+    }
+
+    public void append(ScoreEntry entry) throws IOException {
+        append(Collections.singletonList(entry));
+    }
+
+    // One positioned write to the log for the whole batch; the fsync is left to the background
+    // thread or sync()
+    public void append(List<ScoreEntry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        int[] ids = intern(entries);
+        synchronized (logLock) {
+            ByteBuffer batch = entries.size() == 1 ? logRecord : ByteBuffer.allocate(entries.size() * LOG_RECORD_SIZE);
+            batch.clear();
+            for (int i = 0; i < ids.length; i++) {
+                ScoreEntry entry = entries.get(i);
+                int start = batch.position();
+                batch.putInt(ids[i]).putInt(entry.getDifficulty()).putInt(entry.getAttempts())
+                    .putInt(entry.getSecondsLeft()).putLong(entry.getTimestamp());
+                crc.reset();
+                crc.update(batch.array(), start, RECORD_SIZE);
+                batch.putInt((int) crc.getValue());
+            }
+            batch.flip();
+            FileLock lock = log.lock();
+            try {
+                long count = logRecordCount();
+                if (count == 0) {
+                    // The log was just emptied; make sure its header matches the record file
+                    // in case the compaction that emptied it never got to rewrite it
+                    writeLogHeader(storedRecordCount());
+                }
+                writeFully(log, batch, HEADER_SIZE + count * LOG_RECORD_SIZE);
+            } finally {
+                lock.release();
+            }
+        }
+        lastAppendNanos = System.nanoTime();
+        dirty = true;
+    }
+
+    // Forces appended scores to disk now instead of at the next batch
+    public void sync() throws IOException {
+        if (dirty) {
+            dirty = false;
+            log.force(false);
+        }
+    }
+
+    // Folds the log into the record file and empties it. This is also the recovery path: a fold
+    // that died after extending the record file shows up as more records than the log header
+    // says were folded, and exactly that many log records are skipped.
+    public void compact() throws IOException {
+        synchronized (logLock) {
+            FileLock lock = log.lock();
+            try (FileChannel records = FileChannel.open(recordsFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long count = logRecordCount();
+                if (count == 0) {
+                    return;
+                }
+                long folded = readFoldedCount();
+                long stored = (records.size() - HEADER_SIZE) / RECORD_SIZE;
+                if (stored < folded) {
+                    System.err.println("Error: score store has fewer records than its log expects: " + recordsFile);
+                    folded = stored;
+                }
+                records.truncate(HEADER_SIZE + stored * RECORD_SIZE);
+
+                long skip = stored - folded;
+                ByteBuffer in = ByteBuffer.allocate(FOLD_CHUNK * LOG_RECORD_SIZE);
+                ByteBuffer out = ByteBuffer.allocate(FOLD_CHUNK * RECORD_SIZE);
+                CRC32 check = new CRC32();
+                for (long first = 0; first < count; first += FOLD_CHUNK) {
+                    in.clear();
+                    in.limit((int) (Math.min(FOLD_CHUNK, count - first) * LOG_RECORD_SIZE));
+                    readFully(log, in, HEADER_SIZE + first * LOG_RECORD_SIZE);
+                    in.flip();
+                    out.clear();
+                    while (in.remaining() >= LOG_RECORD_SIZE) {
+                        if (!validLogRecord(in, check)) {
+                            in.position(in.position() + LOG_RECORD_SIZE);
+                        } else if (skip > 0) {
+                            skip--;
+                            in.position(in.position() + LOG_RECORD_SIZE);
+                        } else {
+                            out.putLong(in.getLong()).putLong(in.getLong()).putLong(in.getLong());
+                            in.getInt();
+                        }
+                    }
+                    out.flip();
+                    writeFully(records, out, records.size());
+                }
+                records.force(true);
+
+                long total = (records.size() - HEADER_SIZE) / RECORD_SIZE;
+                log.truncate(HEADER_SIZE);
+                writeLogHeader(total);
+                log.force(true);
+                dirty = false;
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    // Folds what is left and stops background maintenance for this store
+    public void close() throws IOException {
+        OPEN.remove(this);
+        compact();
+        log.close();
+    }
+
+    private static synchronized void startCompactor() {
+        if (compactorThread != null) {
+            return;
+        }
+        compactorThread = new Thread(() -> {
+            while (true) {
+                for (ScoreStore store : OPEN) {
+                    store.maintain();
+                }
+                LockSupport.parkNanos(SYNC_INTERVAL_NANOS);
+            }
+        }, "score-compactor");
+        compactorThread.setDaemon(true);
+        compactorThread.start();
+    }
+
+    private void maintain() {
+        if (!OPEN.contains(this)) {
+            return;
+        }
+        try {
+            sync();
+            long count = logRecordCount();
+            if (count >= COMPACT_THRESHOLD
+                || (count > 0 && System.nanoTime() - lastAppendNanos >= COMPACT_IDLE_NANOS)) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("Error compacting scores: " + e.getMessage());
+        }
+    }
+
+    private long logRecordCount() throws IOException {
+        return Math.max(0, (log.size() - HEADER_SIZE) / LOG_RECORD_SIZE);
+    }
+
+    private long storedRecordCount() throws IOException {
+        return Math.max(0, (Files.size(recordsFile) - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    private long readFoldedCount() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(log, header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != LOG_MAGIC || header.getShort() != VERSION
+            || header.getShort() != LOG_RECORD_SIZE) {
+            throw new IOException("Unsupported score log format: " + logFile);
+        }
+        return header.getLong();
+    }
+
+    private void writeLogHeader(long folded) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(LOG_MAGIC).putShort(VERSION).putShort((short) LOG_RECORD_SIZE).putLong(folded);
+        header.flip();
+        writeFully(log, header, 0);
+    }
+
+    // Leaves the buffer positioned on the record when the checksum matches
+    private static boolean validLogRecord(ByteBuffer buffer, CRC32 check) {
+        int start = buffer.position();
+        check.reset();
+        check.update(buffer.array(), buffer.arrayOffset() + start, RECORD_SIZE);
+        return buffer.getInt(start + RECORD_SIZE) == (int) check.getValue();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    // Ids must agree across processes sharing the directory, so new names are added under a file
+    // lock, all of a batch's new names in one write
+    private synchronized int[] intern(List<ScoreEntry> entries) throws IOException {
+        int[] ids = new int[entries.size()];
+        boolean missing = false;
+        for (int i = 0; i < ids.length; i++) {
+            Integer id = nameIds.get(entries.get(i).getPlayerName());
+            ids[i] = id == null ? -1 : id;
+            missing |= id == null;
+        }
+        if (!missing) {
+            return ids;
+        }
+
+        synchronized (namesLock) {
+            try (FileChannel channel = FileChannel.open(namesFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    readNewNames(channel);
+                    Map<String, byte[]> added = new LinkedHashMap<>();
+                    int size = 0;
+                    for (int i = 0; i < ids.length; i++) {
+                        String name = entries.get(i).getPlayerName();
+                        if (ids[i] < 0 && !nameIds.containsKey(name) && !added.containsKey(name)) {
+                            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                            bytes = Arrays.copyOf(bytes, Math.min(bytes.length, Short.MAX_VALUE));
+                            added.put(name, bytes);
+                            size += 2 + bytes.length;
+                        }
+                    }
+                    if (!added.isEmpty()) {
+                        ByteBuffer buffer = ByteBuffer.allocate(size);
+                        for (byte[] bytes : added.values()) {
+                            buffer.putShort((short) bytes.length).put(bytes);
+                        }
+                        buffer.flip();
+                        writeFully(channel, buffer, channel.size());
+                        // The log records that use these ids must never outlive the names on disk
+                        channel.force(false);
+                        namesOffset = channel.size();
+                        for (String name : added.keySet()) {
+                            nameIds.put(name, names.size());
+                            names.add(name);
+                        }
+                    }
+                    for (int i = 0; i < ids.length; i++) {
+                        if (ids[i] < 0) {
+                            ids[i] = nameIds.get(entries.get(i).getPlayerName());
+                        }
+                    }
+                    return ids;
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    private synchronized void readNewNames() throws IOException {
+        try (FileChannel channel = FileChannel.open(namesFile, StandardOpenOption.READ)) {
+            readNewNames(channel);
+        }
+    }
+
+    private void readNewNames(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size <= namesOffset) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (size - namesOffset));
+        readFully(channel, buffer, namesOffset);
+        buffer.flip();
+        if (namesOffset == 0) {
+            if (buffer.getInt() != NAMES_MAGIC || buffer.getShort() != NAMES_VERSION) {
+                throw new IOException("Not a score name table: " + namesFile);
+            }
+        }
+        while (buffer.remaining() >= 2) {
+            int length = buffer.getShort(buffer.position());
+            if (buffer.remaining() < 2 + length) {
+                break;
+            }
+            buffer.getShort();
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            String name = new String(bytes, StandardCharsets.UTF_8);
+            nameIds.putIfAbsent(name, names.size());
+            names.add(name);
+        }
+        namesOffset += buffer.position();
+    }
+
+    private void createIfMissing() throws IOException {
+        if (!Files.exists(namesFile)) {
+            ByteBuffer header = ByteBuffer.allocate(6);
+            header.putInt(NAMES_MAGIC).putShort(NAMES_VERSION);
+            Files.write(namesFile, header.array(), StandardOpenOption.CREATE_NEW);
+        }
+        if (!Files.exists(recordsFile)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE).putLong(0);
+            Files.write(recordsFile, header.array(), StandardOpenOption.CREATE_NEW);
+        }
+        if (!Files.exists(logFile)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(LOG_MAGIC).putShort(VERSION).putShort((short) LOG_RECORD_SIZE).putLong(storedRecordCount());
+            Files.write(logFile, header.array(), StandardOpenOption.CREATE_NEW);
+        }
+    }
+
+    private void checkHeader(ByteBuffer buffer) throws IOException {
+        int magic = buffer.getInt();
+        short version = buffer.getShort();
+        short recordSize = buffer.getShort();
+        if (magic != MAGIC || version != VERSION || recordSize != RECORD_SIZE) {
+            throw new IOException("Unsupported score store format: " + recordsFile);
+        }
+        buffer.position(HEADER_SIZE);
+    }
+
+    // The legacy scores always go in as one run. An earlier attempt that died before writing the
+    // marker may have left a leading part of that run behind, so the entries that already match
+    // are skipped and only the rest is appended; the marker byte follows once they are synced.
+    private void migrate(Path legacy, Path marker) throws IOException {
+        synchronized (JVM_LOCKS.computeIfAbsent(marker.toAbsolutePath(), path -> new Object())) {
+            try (FileChannel channel = FileChannel.open(marker, StandardOpenOption.CREATE,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    if (channel.size() > 0) {
+                        return;
+                    }
+                    List<ScoreEntry> entries = new ArrayList<>();
+                    for (String line : Files.readAllLines(legacy, StandardCharsets.UTF_8)) {
+                        ScoreEntry entry = ScoreEntry.parse(line);
+                        if (entry != null) {
+                            entries.add(entry);
+                        } else if (!line.trim().isEmpty()) {
+                            System.err.println("Skipping unreadable score line: " + line);
+                        }
+                    }
+
+                    int[] done = new int[1];
+                    boolean[] matching = {true};
+                    forEach(0, entries.size(), (nameId, difficulty, attempts, secondsLeft, timestamp) -> {
+                        ScoreEntry entry = entries.get(done[0]);
+                        matching[0] &= entry.getPlayerName().equals(getName(nameId)) && entry.getDifficulty() == difficulty
+                            && entry.getAttempts() == attempts && entry.getSecondsLeft() == secondsLeft
+                            && entry.getTimestamp() == timestamp;
+                        if (matching[0]) {
+                            done[0]++;
+                        }
+                    });
+                    append(entries.subList(done[0], entries.size()));
+                    sync();
+                    compact();
+
+                    writeFully(channel, ByteBuffer.wrap(new byte[]{1}), 0);
+                    channel.force(true);
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,543 @@
+package ModelClasses;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streams score histories in and out of a ScoreStore as CSV or JSON Lines.
+//
+//   CSV    player,difficulty,attempts,timeLeft,timestamp; four-column lines and the old
+//          space-padded lines import with timestamp 0
+//   JSONL  {"player":"deva","difficulty":"Easy","attempts":18,"secondsLeft":130,"timestamp":0}
+//
+// Both directions go through a FileChannel and one fixed buffer, and imports append in batches,
+// so heap use does not grow with the file. Duplicates, within the files or against what the
+// store already holds, are dropped by a 64-bit fingerprint kept in a memory-mapped hash table
+// on disk rather than on the heap.
+public class ScoreTransfer {
+    public enum Format {
+        CSV, JSONL;
+
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            return name.endsWith(".jsonl") || name.endsWith(".json") ? JSONL : CSV;
+        }
+    }
+
+    public static class Result {
+        private long lines, imported, duplicates, skipped;
+
+        public long getLines() { return lines; }
+        public long getImported() { return imported; }
+        public long getDuplicates() { return duplicates; }
+        public long getSkipped() { return skipped; }
+
+        @Override
+        public String toString() {
+            return String.format("%,d lines: %,d imported, %,d duplicates, %,d unreadable",
+                lines, imported, duplicates, skipped);
+        }
+    }
+
+    private static final String CSV_HEADER = "player,difficulty,attempts,timeLeft,timestamp";
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int BATCH_SIZE = 4096;
+
+    // Usage: ScoreTransfer export FILE [--format csv|jsonl]
+    //        ScoreTransfer import FILE... [--format csv|jsonl]
+    // Works on the score store in the current directory.
+    public static void main(String[] args) throws IOException {
+        boolean export = args.length > 0 && args[0].equals("export");
+        if (args.length < 2 || !(export || args[0].equals("import"))) {
+            printUsage();
+            return;
+        }
+        Format format = null;
+        List<Path> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--format")) {
+                if (i + 1 >= args.length) {
+                    printUsage();
+                    return;
+                }
+                try {
+                    format = Format.valueOf(args[++i].toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Unknown format: " + args[i]);
+                    printUsage();
+                    return;
+                }
+            } else {
+                files.add(Paths.get(args[i]));
+            }
+        }
+        if (files.isEmpty() || (export && files.size() > 1)) {
+            printUsage();
+            return;
+        }
+
+        ScoreStore store = ScoreStore.open(Paths.get(System.getProperty("user.dir")));
+        try {
+            long start = System.nanoTime();
+            if (args[0].equals("export")) {
+                Path file = files.get(0);
+                long count = export(store, file, format != null ? format : Format.forFile(file));
+                System.out.printf("Exported %,d scores to %s in %d ms%n", count, file,
+                    (System.nanoTime() - start) / 1_000_000);
+            } else {
+                Result result = importFiles(store, files, format);
+                System.out.printf("Imported %s in %d ms%n", result, (System.nanoTime() - start) / 1_000_000);
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: ScoreTransfer export FILE [--format csv|jsonl]");
+        System.err.println("       ScoreTransfer import FILE... [--format csv|jsonl]");
+    }
+
+    public static long export(ScoreStore store, Path file, Format format) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            StringBuilder line = new StringBuilder(128);
+            if (format == Format.CSV) {
+                buffer.put((CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            long[] count = new long[1];
+            try {
+                store.forEach((nameId, difficulty, attempts, secondsLeft, timestamp) -> {
+                    line.setLength(0);
+                    String name = store.getName(nameId);
+                    String difficultyText = ScoreEntry.difficultyName(difficulty);
+                    if (format == Format.JSONL) {
+                        line.append("{\"player\":");
+                        appendJsonString(line, name);
+                        line.append(",\"difficulty\":\"").append(difficultyText)
+                            .append("\",\"attempts\":").append(attempts)
+                            .append(",\"secondsLeft\":").append(secondsLeft)
+                            .append(",\"timestamp\":").append(timestamp).append('}');
+                    } else {
+                        appendCsvField(line, name);
+                        line.append(',').append(difficultyText).append(',').append(attempts)
+                            .append(',').append(ScoreEntry.formatTime(secondsLeft)).append(',').append(timestamp);
+                    }
+                    line.append('\n');
+                    byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                    try {
+                        if (buffer.remaining() < bytes.length) {
+                            flush(out, buffer);
+                        }
+                        buffer.put(bytes);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            flush(out, buffer);
+            return count[0];
+        }
+    }
+
+    // format == null picks each file's format from its extension
+    public static Result importFiles(ScoreStore store, List<Path> files, Format format) throws IOException {
+        Result result = new Result();
+        try (FingerprintTable seen = new FingerprintTable()) {
+            try {
+                store.forEach((nameId, difficulty, attempts, secondsLeft, timestamp) ->
+                    seen.addUnchecked(fingerprint(store.getName(nameId), difficulty, attempts, secondsLeft, timestamp)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            List<ScoreEntry> batch = new ArrayList<>(BATCH_SIZE);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            for (Path file : files) {
+                Format fileFormat = format != null ? format : Format.forFile(file);
+                buffer.clear();
+                try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                    boolean eof = false;
+                    // Set while skipping the rest of a line that overflowed the buffer
+                    boolean discarding = false;
+                    while (!eof) {
+                        eof = in.read(buffer) < 0;
+                        buffer.flip();
+                        byte[] bytes = buffer.array();
+                        int start = 0;
+                        for (int i = 0; i < buffer.limit(); i++) {
+                            if (bytes[i] == '\n') {
+                                if (discarding) {
+                                    discarding = false;
+                                } else {
+                                    importLine(store, seen, batch, result, fileFormat, bytes, start, i);
+                                }
+                                start = i + 1;
+                            }
+                        }
+                        if (eof && start < buffer.limit()) {
+                            if (!discarding) {
+                                importLine(store, seen, batch, result, fileFormat, bytes, start, buffer.limit());
+                            }
+                            start = buffer.limit();
+                        }
+                        buffer.position(start);
+                        buffer.compact();
+                        if (!buffer.hasRemaining()) {
+                            // A single line longer than the buffer cannot be a score; none of its
+                            // tail may be read as one either
+                            if (!discarding) {
+                                result.lines++;
+                                result.skipped++;
+                                discarding = true;
+                            }
+                            buffer.clear();
+                        }
+                    }
+                }
+            }
+            store.append(batch);
+            result.imported += batch.size();
+            store.sync();
+        }
+        return result;
+    }
+
+    private static void importLine(ScoreStore store, FingerprintTable seen, List<ScoreEntry> batch, Result result,
+                                   Format format, byte[] bytes, int start, int end) throws IOException {
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+        String line = new String(bytes, start, end - start, StandardCharsets.UTF_8).trim();
+        if (line.isEmpty() || line.equals(CSV_HEADER)) {
+            return;
+        }
+        result.lines++;
+        ScoreEntry entry = format == Format.JSONL ? parseJson(line) : parseCsv(line);
+        if (entry == null) {
+            result.skipped++;
+            return;
+        }
+        if (!seen.add(fingerprint(entry.getPlayerName(), entry.getDifficulty(), entry.getAttempts(),
+                entry.getSecondsLeft(), entry.getTimestamp()))) {
+            result.duplicates++;
+            return;
+        }
+        batch.add(entry);
+        if (batch.size() == BATCH_SIZE) {
+            store.append(batch);
+            result.imported += batch.size();
+            batch.clear();
+        }
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static long fingerprint(String playerName, int difficulty, int attempts, int secondsLeft, long timestamp) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < playerName.length(); i++) {
+            hash = (hash ^ playerName.charAt(i)) * 0x100000001b3L;
+        }
+        hash = mix(hash ^ difficulty);
+        hash = mix(hash ^ attempts);
+        hash = mix(hash ^ secondsLeft);
+        hash = mix(hash ^ timestamp);
+        // 0 marks an empty slot in the table
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static ScoreEntry parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 4) {
+            return ScoreEntry.parse(line);
+        }
+        try {
+            long timestamp = fields.size() > 4 ? Long.parseLong(fields.get(4).trim()) : 0;
+            return new ScoreEntry(fields.get(0), ScoreEntry.difficultyCode(fields.get(1).trim()),
+                Integer.parseInt(fields.get(2).trim()), ScoreEntry.parseTime(fields.get(3)), timestamp);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(5);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void appendCsvField(StringBuilder line, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            line.append(value);
+            return;
+        }
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void appendJsonString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    // Reads one flat object of string and number fields; unknown fields are ignored
+    private static ScoreEntry parseJson(String line) {
+        JsonCursor cursor = new JsonCursor(line);
+        String player = null;
+        int difficulty = -1;
+        long attempts = -1, secondsLeft = -1, timestamp = 0;
+        try {
+            cursor.expect('{');
+            if (cursor.peek() == '}') {
+                return null;
+            }
+            do {
+                String key = cursor.readString();
+                cursor.expect(':');
+                if (cursor.peek() == '"') {
+                    String value = cursor.readString();
+                    if (key.equals("player")) player = value;
+                    else if (key.equals("difficulty")) difficulty = ScoreEntry.difficultyCode(value);
+                    else if (key.equals("timeLeft")) secondsLeft = ScoreEntry.parseTime(value);
+                } else {
+                    long value = cursor.readNumber();
+                    if (key.equals("attempts")) attempts = value;
+                    else if (key.equals("secondsLeft")) secondsLeft = value;
+                    else if (key.equals("timestamp")) timestamp = value;
+                    else if (key.equals("difficulty")) difficulty = (int) value;
+                }
+            } while (cursor.skipComma());
+            cursor.expect('}');
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (player == null || difficulty < 0 || attempts < 0 || secondsLeft < 0) {
+            return null;
+        }
+        return new ScoreEntry(player, difficulty, (int) attempts, (int) secondsLeft, timestamp);
+    }
+
+    private static class JsonCursor {
+        private final String text;
+        private int pos;
+
+        JsonCursor(String text) {
+            this.text = text;
+        }
+
+        char peek() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos >= text.length()) {
+                throw new IllegalArgumentException("Unexpected end of line");
+            }
+            return text.charAt(pos);
+        }
+
+        void expect(char c) {
+            if (peek() != c) {
+                throw new IllegalArgumentException("Expected " + c);
+            }
+            pos++;
+        }
+
+        boolean skipComma() {
+            if (peek() == ',') {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c == '\\' && pos < text.length()) {
+                    char escaped = text.charAt(pos++);
+                    switch (escaped) {
+                        case 'n': value.append('\n'); break;
+                        case 't': value.append('\t'); break;
+                        case 'r': value.append('\r'); break;
+                        case 'b': value.append('\b'); break;
+                        case 'f': value.append('\f'); break;
+                        case 'u':
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                            pos += 4;
+                            break;
+                        default: value.append(escaped);
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+            throw new IllegalArgumentException("Unterminated string");
+        }
+
+        long readNumber() {
+            peek();
+            int start = pos;
+            while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '-')) {
+                pos++;
+            }
+            return Long.parseLong(text.substring(start, pos));
+        }
+    }
+
+    // Open-addressing set of fingerprints in a memory-mapped temp file, doubled when half full.
+    // Each file is opened DELETE_ON_CLOSE and only ever closed, never deleted by name: a mapped
+    // file cannot be deleted on Windows, and this way it goes once its channel and mappings do.
+    private static class FingerprintTable implements Closeable {
+        private static final int SEGMENT_SHIFT = 24;
+        private static final long SEGMENT_SLOTS = 1L << SEGMENT_SHIFT;
+        private static final long INITIAL_SLOTS = 1L << 20;
+
+        private FileChannel channel;
+        private MappedByteBuffer[] segments;
+        private long capacity;
+        private long size;
+
+        FingerprintTable() throws IOException {
+            map(INITIAL_SLOTS);
+        }
+
+        boolean add(long fingerprint) throws IOException {
+            if (size * 2 >= capacity) {
+                grow();
+            }
+            if (insert(fingerprint)) {
+                size++;
+                return true;
+            }
+            return false;
+        }
+
+        void addUnchecked(long fingerprint) {
+            try {
+                add(fingerprint);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private boolean insert(long fingerprint) {
+            long mask = capacity - 1;
+            for (long slot = fingerprint & mask; ; slot = (slot + 1) & mask) {
+                MappedByteBuffer segment = segments[(int) (slot >>> SEGMENT_SHIFT)];
+                int offset = (int) (slot & (SEGMENT_SLOTS - 1)) * 8;
+                long value = segment.getLong(offset);
+                if (value == 0) {
+                    segment.putLong(offset, fingerprint);
+                    return true;
+                }
+                if (value == fingerprint) {
+                    return false;
+                }
+            }
+        }
+
+        private void grow() throws IOException {
+            MappedByteBuffer[] oldSegments = segments;
+            FileChannel oldChannel = channel;
+            map(capacity * 2);
+            for (int i = 0; i < oldSegments.length; i++) {
+                MappedByteBuffer segment = oldSegments[i];
+                for (int offset = 0; offset < segment.capacity(); offset += 8) {
+                    long value = segment.getLong(offset);
+                    if (value != 0) {
+                        insert(value);
+                    }
+                }
+                // Unreachable mappings are unmapped by the collector, which lets the file go
+                oldSegments[i] = null;
+            }
+            oldChannel.close();
+        }
+
+        private void map(long slots) throws IOException {
+            Path file = Files.createTempFile("score-fingerprints", ".tmp");
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            int count = (int) Math.max(1, slots / SEGMENT_SLOTS);
+            long segmentBytes = Math.min(slots, SEGMENT_SLOTS) * 8;
+            segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * segmentBytes, segmentBytes);
+            }
+            capacity = slots;
+        }
+
+        @Override
+        public void close() throws IOException {
+            segments = null;
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ModelClasses;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+// Runs a callback whenever scores may have been added to a store directory, by this process or
+// another one sharing it. Changes to the log or record file arrive through a WatchService, and a
+// burst of events becomes a single callback. The callback also runs every POLL_MILLIS without an
+// event, since some file systems (network shares among them) never report changes.
+public class ScoreWatcher {
+    private static final long POLL_MILLIS = 5000;
+    private static final long SETTLE_MILLIS = 20;
+
+    private final WatchService service;
+    private final Runnable changed;
+    private final Thread thread;
+
+    public ScoreWatcher(Path directory, Runnable changed) throws IOException {
+        this.service = directory.getFileSystem().newWatchService();
+        this.changed = changed;
+        directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "score-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void close() {
+        try {
+            service.close();
+        } catch (IOException e) {
+            System.err.println("Error closing score watcher: " + e.getMessage());
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            try {
+                WatchKey key = service.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    boolean relevant = drain(key);
+                    // One append raises several events within a few milliseconds; take them together
+                    while ((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        relevant |= drain(key);
+                    }
+                    if (!relevant) {
+                        continue;
+                    }
+                }
+                changed.run();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Error refreshing scores: " + e.getMessage());
+            }
+        }
+    }
+
+    private static boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+            } else {
+                String name = event.context().toString();
+                relevant |= name.equals(ScoreStore.LOG_FILE) || name.equals(ScoreStore.RECORDS_FILE);
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+}
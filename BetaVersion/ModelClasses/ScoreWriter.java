@@ -0,0 +1,142 @@
+package ModelClasses;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Commits scores on its own thread so no caller waits on the disk. Everything that queued up
+// while the previous batch was written goes out together as one log write and a single fsync,
+// and each submission's future completes once its score is durable.
+//
+// Submitting is lock-free: a CAS onto the queue and an unpark of the writer thread, so any
+// number of sessions can hand in scores at once without queuing behind each other.
+public class ScoreWriter {
+    private static final int MAX_BATCH = 256;
+    private static final Submission STOP = new Submission(null);
+
+    private final ScoreStore store;
+    private final Consumer<List<ScoreEntry>> committed;
+    private final Queue<Submission> queue = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    // closed is set by close(); stopped once the thread has left run(), however it got there
+    private volatile boolean closed;
+    private volatile boolean stopped;
+
+    private static class Submission {
+        final ScoreEntry entry;
+        final CompletableFuture<ScoreEntry> done = new CompletableFuture<>();
+
+        Submission(ScoreEntry entry) {
+            this.entry = entry;
+        }
+    }
+
+    // committed runs on the writer thread with each durable batch, before the futures complete
+    public ScoreWriter(ScoreStore store, Consumer<List<ScoreEntry>> committed) {
+        this.store = store;
+        this.committed = committed;
+        this.thread = new Thread(this::run, "score-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Fails at once when the writer is closed, since nothing would ever commit the score
+    public CompletableFuture<ScoreEntry> submit(ScoreEntry entry) {
+        if (closed || stopped) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Score writer is closed"));
+        }
+        Submission submission = new Submission(entry);
+        queue.add(submission);
+        if (stopped) {
+            // The thread may have drained the queue just before the add
+            failQueued();
+        } else {
+            LockSupport.unpark(thread);
+        }
+        return submission.done;
+    }
+
+    // Commits everything already submitted, then stops the thread
+    public void close() {
+        closed = true;
+        queue.add(STOP);
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            commitBatches();
+        } finally {
+            stopped = true;
+            failQueued();
+        }
+    }
+
+    private void failQueued() {
+        Submission submission;
+        while ((submission = queue.poll()) != null) {
+            if (submission != STOP) {
+                submission.done.completeExceptionally(new IllegalStateException("Score writer is closed"));
+            }
+        }
+    }
+
+    private void commitBatches() {
+        List<Submission> batch = new ArrayList<>(MAX_BATCH);
+        List<ScoreEntry> written = new ArrayList<>(MAX_BATCH);
+        boolean running = true;
+        while (running) {
+            Submission next;
+            while ((next = queue.poll()) == null) {
+                if (Thread.interrupted()) {
+                    return;
+                }
+                LockSupport.park(this);
+            }
+            do {
+                batch.add(next);
+            } while (batch.size() < MAX_BATCH && (next = queue.poll()) != null);
+
+            for (Submission submission : batch) {
+                if (submission == STOP) {
+                    running = false;
+                } else {
+                    written.add(submission.entry);
+                }
+            }
+
+            IOException error = null;
+            try {
+                store.append(written);
+                store.sync();
+            } catch (IOException e) {
+                error = e;
+            }
+            if (error == null && !written.isEmpty()) {
+                committed.accept(written);
+            }
+            for (Submission submission : batch) {
+                if (submission == STOP) {
+                    continue;
+                }
+                if (error != null) {
+                    submission.done.completeExceptionally(error);
+                } else {
+                    submission.done.complete(submission.entry);
+                }
+            }
+            batch.clear();
+            written.clear();
+        }
+    }
+}
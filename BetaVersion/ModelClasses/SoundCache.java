@@ -0,0 +1,129 @@
+package ModelClasses;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Rendered tones kept on disk between launches, so a tone is only synthesized again when its
+// parameters change. Each rendering is a 16-bit PCM WAV file named by a 128-bit hash of
+// ToneSynth.describe(), which covers the notes, envelope, channels, sample rate and engine
+// version. A file's name therefore says exactly what is in it, and a stale or foreign file can
+// never be picked up for other parameters.
+//
+// Files are read through a memory mapping and written to a temp file that is then moved into
+// place, so instances sharing the directory never see half a file. Anything unreadable is
+// rendered again and overwritten.
+public class SoundCache {
+    public static final String DIRECTORY = "sound-cache";
+    private static final int WAV_HEADER_SIZE = 44;
+
+    private SoundCache() {
+    }
+
+    public static short[] render(ToneSynth.Envelope envelope, int channels, ToneSynth.Note... notes) {
+        Path file = Paths.get(System.getProperty("user.dir"), DIRECTORY,
+            hash(ToneSynth.describe(envelope, channels, notes)) + ".wav");
+        if (Files.exists(file)) {
+            try {
+                short[] samples = read(file, channels);
+                if (samples != null) {
+                    return samples;
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading cached sound: " + e.getMessage());
+            }
+        }
+        short[] samples = ToneSynth.render(envelope, channels, notes);
+        try {
+            write(file, samples, channels);
+        } catch (IOException e) {
+            System.err.println("Error caching sound: " + e.getMessage());
+        }
+        return samples;
+    }
+
+    // null if the file is not a WAV this class wrote for the given channel count
+    private static short[] read(Path file, int channels) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < WAV_HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != tag("RIFF") || buffer.getInt(8) != tag("WAVE") || buffer.getInt(12) != tag("fmt ")
+                || buffer.getShort(20) != 1 || buffer.getShort(22) != channels
+                || buffer.getInt(24) != ToneSynth.SAMPLE_RATE || buffer.getShort(34) != 16
+                || buffer.getInt(36) != tag("data") || buffer.getInt(40) != size - WAV_HEADER_SIZE) {
+                return null;
+            }
+            short[] samples = new short[(int) ((size - WAV_HEADER_SIZE) / 2)];
+            buffer.position(WAV_HEADER_SIZE);
+            buffer.asShortBuffer().get(samples);
+            return samples;
+        }
+    }
+
+    private static void write(Path file, short[] samples, int channels) throws IOException {
+        Files.createDirectories(file.getParent());
+        ByteBuffer buffer = ByteBuffer.allocate(WAV_HEADER_SIZE + samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(tag("RIFF")).putInt(36 + samples.length * 2).putInt(tag("WAVE"))
+            .putInt(tag("fmt ")).putInt(16).putShort((short) 1).putShort((short) channels)
+            .putInt(ToneSynth.SAMPLE_RATE).putInt(ToneSynth.SAMPLE_RATE * channels * 2)
+            .putShort((short) (channels * 2)).putShort((short) 16)
+            .putInt(tag("data")).putInt(samples.length * 2);
+        buffer.asShortBuffer().put(samples);
+        buffer.position(buffer.capacity());
+        buffer.flip();
+
+        Path temp = Files.createTempFile(file.getParent(), "sound", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // A four-character chunk id as the little-endian int it reads back as
+    private static int tag(String id) {
+        return ByteBuffer.wrap(id.getBytes(StandardCharsets.US_ASCII)).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    }
+
+    // 128 bits from two differently seeded 64-bit hashes: plenty to keep distinct parameter sets
+    // apart, and cheap to start, unlike a MessageDigest whose provider lookup costs tens of ms
+    private static String hash(String key) {
+        StringBuilder hex = new StringBuilder(32);
+        for (long half : new long[]{hash64(key, 0xcbf29ce484222325L), hash64(key, 0x9e3779b97f4a7c15L)}) {
+            String digits = Long.toHexString(half);
+            for (int i = digits.length(); i < 16; i++) {
+                hex.append('0');
+            }
+            hex.append(digits);
+        }
+        return hex.toString();
+    }
+
+    private static long hash64(String key, long seed) {
+        long hash = seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+            hash ^= hash >>> 29;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -1,83 +1,97 @@
 package ModelClasses;
 
-import javax.sound.sampled.*;
-import java.io.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+// Nothing audio-related happens on the caller's thread. Tones are rendered by ToneSynth as 16-bit
+// stereo, loaded from SoundCache when an earlier launch already rendered them, and kept as PCM
+// buffers that nothing writes to again. Every sound is rendered on a background thread as soon as
+// the first SoundManager is created, core sounds first, and handed to the mixer once ready; a
+// sound played before then is skipped rather than rendered on the audio thread. Every
+// SoundManager plays through one shared SoundMixer, so sounds overlap instead of cutting each
+// other off, and the audio line is only opened by the first sound that plays.
 public class SoundManager {
-    private Clip matchSound, mismatchSound, winSound;
-    private boolean soundEnabled = true;
+    public static final int COUNTDOWN_SECONDS = 30;
+    private static final int MATCH = 0, MISMATCH = 1, WIN = 2, TICK = 3, FINAL_TICK = 4, COMBO = 5;
+    // Streaks of 2 through COMBO_LEVELS + 1 matches each get a higher arpeggio; longer ones repeat the top
+    private static final int COMBO_LEVELS = 8;
+    private static final int SOUNDS = COMBO + COMBO_LEVELS;
+
+    private static final SoundMixer MIXER = new SoundMixer(SOUNDS);
+    private static final ExecutorService SYNTH = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "sound-synth");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final AtomicBoolean RENDERING = new AtomicBoolean();
+
+    private volatile boolean soundEnabled = true;
     
     public SoundManager() {
-        try {
-            matchSound = createToneClip(880, 200);
-            mismatchSound = createToneClip(220, 300);
-            winSound = createToneSequence(new int[]{660, 784, 880}, new int[]{200, 200, 400});
-        } catch (Exception e) {
-            System.err.println("Error creating sounds: " + e.getMessage());
+        if (RENDERING.compareAndSet(false, true)) {
+            for (int sound = 0; sound < SOUNDS; sound++) {
+                int pending = sound;
+                SYNTH.execute(() -> MIXER.publish(pending, render(pending)));
+            }
         }
     }
-    
-    private Clip createToneClip(int hz, int msecs) throws LineUnavailableException {
-        AudioFormat af = new AudioFormat(44100, 8, 1, true, false);
-        Clip clip = AudioSystem.getClip();
-        byte[] buffer = new byte[44100 * msecs / 1000];
-        
-        for (int i = 0; i < buffer.length; i++) {
-            double progress = (double)i / buffer.length;
-            double angle = i / (44100.0 / hz) * 2.0 * Math.PI;
-            buffer[i] = (byte)(Math.sin(angle) * 127.0 * Math.sin(progress * Math.PI));
+
+    private static short[] render(int sound) {
+        switch (sound) {
+            case MATCH:
+                return SoundCache.render(ToneSynth.Envelope.PLUCK, 2, new ToneSynth.Note(880, 200, 0.8, 0));
+            case MISMATCH:
+                return SoundCache.render(ToneSynth.Envelope.SWELL, 2, new ToneSynth.Note(220, 300, 0.8, 0));
+            case WIN:
+                return SoundCache.render(ToneSynth.Envelope.PLUCK, 2,
+                    new ToneSynth.Note(660, 200, 0.7, -0.4), new ToneSynth.Note(784, 200, 0.7, 0),
+                    new ToneSynth.Note(880, 400, 0.8, 0.4));
+            case TICK:
+                return SoundCache.render(ToneSynth.Envelope.CLICK, 2, new ToneSynth.Note(1200, 30, 0.35, 0));
+            case FINAL_TICK:
+                return SoundCache.render(ToneSynth.Envelope.CLICK, 2, new ToneSynth.Note(1600, 45, 0.5, 0));
+            default:
+                // A major triad two semitones higher per level, swept left to right
+                double root = 660 * Math.pow(2, 2 * (sound - COMBO) / 12.0);
+                return SoundCache.render(ToneSynth.Envelope.PLUCK, 2,
+                    new ToneSynth.Note(root, 70, 0.6, -0.5), new ToneSynth.Note(root * 1.25, 70, 0.6, 0),
+                    new ToneSynth.Note(root * 1.5, 70, 0.6, 0.5), new ToneSynth.Note(root * 2, 140, 0.7, 0));
         }
-        
-        clip.open(af, buffer, 0, buffer.length);
-        return clip;
     }
-    
-    private Clip createToneSequence(int[] frequencies, int[] durations) throws LineUnavailableException {
-        AudioFormat af = new AudioFormat(44100, 8, 1, true, false);
-        Clip clip = AudioSystem.getClip();
-        
-        int totalSamples = 0;
-        for (int duration : durations) {
-            totalSamples += 44100 * duration / 1000;
-        }
-        
-        byte[] buffer = new byte[totalSamples];
-        int pos = 0;
-        
-        for (int i = 0; i < frequencies.length; i++) {
-            int hz = frequencies[i];
-            int samples = 44100 * durations[i] / 1000;
-            
-            for (int j = 0; j < samples; j++) {
-                double progress = (double)j / samples;
-                double angle = (pos + j) / (44100.0 / hz) * 2.0 * Math.PI;
-                buffer[pos + j] = (byte)(Math.sin(angle) * 127.0 * Math.sin(progress * Math.PI));
-            }
-            pos += samples;
+
+    private void play(int sound) {
+        if (soundEnabled) {
+            MIXER.trigger(sound);
         }
-        
-        clip.open(af, buffer, 0, buffer.length);
-        return clip;
     }
     
     public void playMatchSound() {
-        if (soundEnabled && matchSound != null) {
-            matchSound.setFramePosition(0);
-            matchSound.start();
-        }
+        play(MATCH);
     }
     
     public void playMismatchSound() {
-        if (soundEnabled && mismatchSound != null) {
-            mismatchSound.setFramePosition(0);
-            mismatchSound.start();
-        }
+        play(MISMATCH);
     }
     
     public void playWinSound() {
-        if (soundEnabled && winSound != null) {
-            winSound.setFramePosition(0);
-            winSound.start();
+        play(WIN);
+    }
+
+    // streak counts consecutive matches; a first match plays the plain match sound
+    public void playComboSound(int streak) {
+        if (streak < 2) {
+            play(MATCH);
+        } else {
+            play(COMBO + Math.min(streak - 2, COMBO_LEVELS - 1));
+        }
+    }
+
+    // One tick a second over the last COUNTDOWN_SECONDS, sharper over the last ten
+    public void playTickSound(int secondsLeft) {
+        if (secondsLeft > 0 && secondsLeft <= COUNTDOWN_SECONDS) {
+            play(secondsLeft <= 10 ? FINAL_TICK : TICK);
         }
     }
     
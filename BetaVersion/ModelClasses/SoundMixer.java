@@ -0,0 +1,165 @@
+package ModelClasses;
+
+import javax.sound.sampled.*;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Plays any number of overlapping sounds through one SourceDataLine. A dedicated thread mixes
+// PERIOD_FRAMES at a time into a line buffer of LINE_PERIODS periods, so a sound starts within
+// about (LINE_PERIODS + 1) * 5.8 ms of its trigger, provided the line grants the buffer size asked for.
+//
+// trigger() only bumps a per-sound counter, so it never blocks or allocates and may be called
+// from any thread. The mixer thread picks the counters up once per period and starts a voice
+// from a fixed pool, taking over the voice that has played longest when all are busy. Voices,
+// the mix buffer and the output buffer are allocated once. The line is opened by the first
+// trigger, and the thread parks while nothing is playing.
+//
+// The mixer thread never renders, locks or touches the disk: it only reads sounds someone else
+// has published, and a trigger for a sound that is not published yet is dropped.
+public class SoundMixer {
+    public static final AudioFormat FORMAT = new AudioFormat(ToneSynth.SAMPLE_RATE, 16, 2, true, false);
+    private static final int PERIOD_FRAMES = 256;
+    private static final int LINE_PERIODS = 2;
+    private static final int MAX_VOICES = 32;
+
+    private final AtomicReferenceArray<short[]> sounds;
+    private final AtomicIntegerArray pending;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean failed;
+    private volatile boolean closed;
+    private volatile Thread thread;
+
+    // Only touched by the mixer thread
+    private final short[][] voiceData = new short[MAX_VOICES][];
+    private final int[] voicePosition = new int[MAX_VOICES];
+    private final int[] mix = new int[PERIOD_FRAMES * 2];
+    private final byte[] out = new byte[PERIOD_FRAMES * 4];
+
+    public SoundMixer(int soundCount) {
+        this.sounds = new AtomicReferenceArray<>(soundCount);
+        this.pending = new AtomicIntegerArray(soundCount);
+    }
+
+    // samples are interleaved 16-bit stereo, as ToneSynth renders them, and must not change afterwards
+    public void publish(int sound, short[] samples) {
+        sounds.set(sound, samples);
+    }
+
+    public void trigger(int sound) {
+        if (failed || closed) {
+            return;
+        }
+        pending.incrementAndGet(sound);
+        if (started.compareAndSet(false, true)) {
+            Thread mixer = new Thread(this::run, "sound-mixer");
+            mixer.setDaemon(true);
+            mixer.setPriority(Thread.MAX_PRIORITY);
+            thread = mixer;
+            mixer.start();
+        } else {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    // Stops the mixer thread; sounds still playing are cut off
+    public void close() {
+        closed = true;
+        Thread mixer = thread;
+        if (mixer != null) {
+            LockSupport.unpark(mixer);
+            try {
+                mixer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, out.length * LINE_PERIODS);
+            line.start();
+        } catch (Exception e) {
+            failed = true;
+            System.err.println("Error opening audio line: " + e.getMessage());
+            return;
+        }
+        while (!closed) {
+            if (!startVoices() && !playing()) {
+                LockSupport.park(this);
+                continue;
+            }
+            mixPeriod();
+            line.write(out, 0, out.length);
+        }
+        line.stop();
+        line.close();
+    }
+
+    private boolean startVoices() {
+        boolean started = false;
+        for (int sound = 0; sound < sounds.length(); sound++) {
+            // Several triggers within one period would only stack the same samples louder
+            if (pending.getAndSet(sound, 0) == 0) {
+                continue;
+            }
+            short[] data = sounds.get(sound);
+            if (data == null) {
+                continue;
+            }
+            int voice = 0;
+            for (int v = 0; v < MAX_VOICES; v++) {
+                if (voiceData[v] == null) {
+                    voice = v;
+                    break;
+                }
+                if (voicePosition[v] > voicePosition[voice]) {
+                    voice = v;
+                }
+            }
+            voiceData[voice] = data;
+            voicePosition[voice] = 0;
+            started = true;
+        }
+        return started;
+    }
+
+    private boolean playing() {
+        for (short[] data : voiceData) {
+            if (data != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void mixPeriod() {
+        Arrays.fill(mix, 0);
+        for (int v = 0; v < MAX_VOICES; v++) {
+            short[] data = voiceData[v];
+            if (data == null) {
+                continue;
+            }
+            int position = voicePosition[v];
+            int samples = Math.min(mix.length, data.length - position);
+            for (int i = 0; i < samples; i++) {
+                mix[i] += data[position + i];
+            }
+            if (position + samples >= data.length) {
+                voiceData[v] = null;
+            } else {
+                voicePosition[v] = position + samples;
+            }
+        }
+        for (int i = 0; i < mix.length; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+            out[2 * i] = (byte) sample;
+            out[2 * i + 1] = (byte) (sample >> 8);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ModelClasses;
+
+// Wavetable tone generator. One cycle of a sine is computed once into TABLE_SIZE entries, and a
+// note advances a 32-bit phase accumulator by hz * 2^32 / SAMPLE_RATE per frame: the top
+// TABLE_BITS bits pick the table entry and the bits below interpolate to the next one. Envelopes
+// are linear segments stepped by one addition per frame, so a note costs a handful of integer
+// and float operations per frame and no Math.sin.
+//
+// Output is interleaved 16-bit samples, mono or stereo, at SAMPLE_RATE.
+public final class ToneSynth {
+    public static final int SAMPLE_RATE = 44100;
+    // Bump whenever a change here alters the samples rendered for the same notes, so cached
+    // renderings are not reused
+    public static final int ENGINE_VERSION = 1;
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int FRACTION_BITS = 32 - TABLE_BITS;
+    private static final float FRACTION_SCALE = 1.0f / (1 << FRACTION_BITS);
+    // One guard entry past the end so interpolation never wraps
+    private static final float[] SINE = new float[TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            SINE[i] = (float) Math.sin(2.0 * Math.PI * i / TABLE_SIZE);
+        }
+    }
+
+    private ToneSynth() {
+    }
+
+    // Attack to full level, decay to the sustain level, hold, then release to silence at the
+    // end of the note. Segments that do not fit a short note are shortened, release first.
+    public static final class Envelope {
+        public static final Envelope PLUCK = new Envelope(5, 60, 0.6, 80);
+        public static final Envelope SWELL = new Envelope(40, 0, 1.0, 120);
+        public static final Envelope CLICK = new Envelope(1, 0, 1.0, 20);
+
+        private final int attackMs, decayMs, releaseMs;
+        private final double sustain;
+
+        public Envelope(int attackMs, int decayMs, double sustain, int releaseMs) {
+            this.attackMs = attackMs;
+            this.decayMs = decayMs;
+            this.sustain = sustain;
+            this.releaseMs = releaseMs;
+        }
+    }
+
+    // hz 0 is a rest. pan runs from -1 (left) to 1 (right) and only matters for stereo output.
+    public static final class Note {
+        private final double hz;
+        private final int ms;
+        private final double gain;
+        private final double pan;
+
+        public Note(double hz, int ms) {
+            this(hz, ms, 1.0, 0.0);
+        }
+
+        public Note(double hz, int ms, double gain, double pan) {
+            this.hz = hz;
+            this.ms = ms;
+            this.gain = gain;
+            this.pan = pan;
+        }
+    }
+
+    // The notes one after another, each shaped by the envelope
+    public static short[] render(Envelope envelope, int channels, Note... notes) {
+        int frames = 0;
+        for (Note note : notes) {
+            frames += frames(note.ms);
+        }
+        short[] out = new short[frames * channels];
+        int offset = 0;
+        for (Note note : notes) {
+            offset = renderNote(out, offset, channels, envelope, note);
+        }
+        return out;
+    }
+
+    // Everything the rendered samples depend on, as a stable string
+    public static String describe(Envelope envelope, int channels, Note... notes) {
+        StringBuilder key = new StringBuilder();
+        key.append("tonesynth/").append(ENGINE_VERSION).append(';').append(SAMPLE_RATE).append("Hz;16bit;")
+            .append(channels).append("ch;envelope=").append(envelope.attackMs).append(',').append(envelope.decayMs)
+            .append(',').append(envelope.sustain).append(',').append(envelope.releaseMs);
+        for (Note note : notes) {
+            key.append(";note=").append(note.hz).append(',').append(note.ms).append(',').append(note.gain)
+                .append(',').append(note.pan);
+        }
+        return key.toString();
+    }
+
+    private static int frames(int ms) {
+        return (int) ((long) SAMPLE_RATE * ms / 1000);
+    }
+
+    private static int renderNote(short[] out, int offset, int channels, Envelope envelope, Note note) {
+        int frames = frames(note.ms);
+        if (note.hz <= 0) {
+            return offset + frames * channels;
+        }
+        int release = Math.min(frames, frames(envelope.releaseMs));
+        int attack = Math.min(frames - release, frames(envelope.attackMs));
+        int decay = Math.min(frames - release - attack, frames(envelope.decayMs));
+        int hold = frames - release - attack - decay;
+        float sustain = (float) envelope.sustain;
+
+        // Constant-power pan; a mono note gets the plain gain
+        float left, right;
+        if (channels == 2) {
+            double angle = (note.pan + 1) * Math.PI / 4;
+            left = (float) (note.gain * Math.cos(angle) * Math.sqrt(2) * Short.MAX_VALUE);
+            right = (float) (note.gain * Math.sin(angle) * Math.sqrt(2) * Short.MAX_VALUE);
+        } else {
+            left = right = (float) (note.gain * Short.MAX_VALUE);
+        }
+
+        int increment = (int) Math.round(note.hz * 4294967296.0 / SAMPLE_RATE);
+        int[] phase = new int[1];
+        offset = renderSegment(out, offset, channels, attack, 0, 1, left, right, increment, phase);
+        offset = renderSegment(out, offset, channels, decay, 1, sustain, left, right, increment, phase);
+        offset = renderSegment(out, offset, channels, hold, sustain, sustain, left, right, increment, phase);
+        offset = renderSegment(out, offset, channels, release, hold > 0 || decay > 0 ? sustain : 1, 0,
+            left, right, increment, phase);
+        return offset;
+    }
+
+    private static int renderSegment(short[] out, int offset, int channels, int frames, float from, float to,
+                                     float left, float right, int increment, int[] phase) {
+        if (frames == 0) {
+            return offset;
+        }
+        float level = from;
+        float step = (to - from) / frames;
+        int p = phase[0];
+        for (int i = 0; i < frames; i++) {
+            int index = p >>> FRACTION_BITS;
+            float fraction = (p & ((1 << FRACTION_BITS) - 1)) * FRACTION_SCALE;
+            float sample = (SINE[index] + (SINE[index + 1] - SINE[index]) * fraction) * level;
+            out[offset++] = clamp(sample * left);
+            if (channels == 2) {
+                out[offset++] = clamp(sample * right);
+            }
+            p += increment;
+            level += step;
+        }
+        phase[0] = p;
+        return offset;
+    }
+
+    private static short clamp(float sample) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+    }
+}
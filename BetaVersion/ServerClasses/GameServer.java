@@ -0,0 +1,174 @@
+package ServerClasses;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ControllerClasses.TimingWheel;
+import ModelClasses.GameModel;
+import ModelClasses.ScoreManager;
+
+// Hosts many independent games in one JVM behind a line-based protocol on a loopback socket.
+//
+//   NEW <gridSize> [seed] [name]  -> OK <session> <seed> <cardCount>
+//   PICK <session> <index>        -> OK <result> <symbol> <attempts> <pairs> <totalPairs> | BUSY | OVER
+//   STATE <session>               -> OK <ACTIVE|BUSY|OVER> <attempts> <pairs> <totalPairs> <timeLeft>
+//   CLOSE <session>               -> OK
+//   QUIT
+//
+// Any connection may drive any session. A session whose game is over answers OVER until it is
+// dropped, which happens on CLOSE, once the connection that created it closes, or after
+// GameSession.IDLE_TIMEOUT_MS without a request.
+public class GameServer {
+    public static final int DEFAULT_PORT = 7777;
+
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionId = new AtomicLong(1);
+    private final ForkJoinPool sessionPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+        ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    private final TimingWheel timers = TimingWheel.shared();
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+    private final ScoreManager scoreManager;
+
+    public GameServer(ScoreManager scoreManager) {
+        this.scoreManager = scoreManager;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public void serve(int port) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress())) {
+            System.out.println("Game server listening on " + serverSocket.getLocalSocketAddress());
+            while (true) {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handleConnection(socket));
+            }
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        List<GameSession> created = new ArrayList<>();
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+                out.println(handle(line, created));
+            }
+        } catch (IOException e) {
+            System.err.println("Connection error: " + e.getMessage());
+        } finally {
+            // Nobody is left to finish these games
+            for (GameSession session : created) {
+                if (sessions.remove(session.getId(), session)) {
+                    session.send(session::close);
+                }
+            }
+        }
+    }
+
+    public String handle(String line) {
+        return handle(line, null);
+    }
+
+    // created collects the sessions this line opens, or is null when nothing owns them
+    private String handle(String line, List<GameSession> created) {
+        String[] parts = line.trim().split("\\s+");
+        try {
+            switch (parts[0].toUpperCase()) {
+                case "NEW": return newSession(parts, created);
+                case "PICK": return pick(session(parts[1]), Integer.parseInt(parts[2]));
+                case "STATE": return state(session(parts[1]));
+                case "CLOSE": return closeSession(parts[1]);
+                default: return "ERR unknown command " + parts[0];
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return "ERR missing argument";
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private String newSession(String[] parts, List<GameSession> created) {
+        int gridSize = Integer.parseInt(parts[1]);
+        GameModel model = new GameModel(gridSize);
+        if (parts.length > 2) {
+            model.initializeGame(Long.parseLong(parts[2]));
+        } else {
+            model.initializeGame();
+        }
+        String playerName = parts.length > 3 ? parts[3] : "Player";
+        long id = nextSessionId.getAndIncrement();
+        GameSession session = new GameSession(id, playerName, model, scoreManager, sessionPool, timers,
+            closed -> sessions.remove(closed.getId(), closed));
+        sessions.put(id, session);
+        if (created != null) {
+            // Sessions that were closed some other way are dropped from the list as well
+            created.removeIf(owned -> !sessions.containsKey(owned.getId()));
+            created.add(session);
+        }
+        session.start();
+        return "OK " + id + " " + model.getSeed() + " " + model.getCardCount();
+    }
+
+    private String pick(GameSession session, int index) {
+        return await(session.ask(() -> session.pick(index)));
+    }
+
+    private String state(GameSession session) {
+        return await(session.ask(session::state));
+    }
+
+    private String closeSession(String id) {
+        GameSession session = sessions.remove(Long.parseLong(id));
+        if (session == null) {
+            return "ERR no such session " + id;
+        }
+        session.send(session::close);
+        return "OK";
+    }
+
+    private GameSession session(String id) {
+        GameSession session = sessions.get(Long.parseLong(id));
+        if (session == null) {
+            throw new IllegalStateException("no such session " + id);
+        }
+        return session;
+    }
+
+    private static String await(CompletableFuture<String> reply) {
+        try {
+            return reply.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERR interrupted";
+        } catch (ExecutionException e) {
+            return "ERR " + e.getCause().getMessage();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        new GameServer(new ScoreManager()).serve(port);
+    }
+}
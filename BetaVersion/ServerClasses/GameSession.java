@@ -0,0 +1,193 @@
+package ServerClasses;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import ControllerClasses.TimingWheel;
+import ModelClasses.GameJournal;
+import ModelClasses.GameModel;
+import ModelClasses.ScoreEntry;
+import ModelClasses.ScoreManager;
+
+// One hosted game: a GameModel plus the rules GameController applies in the Swing client.
+// Each session is an actor. Messages run one at a time on the shared executor, so the
+// model is never touched by two threads at once and no session needs a thread of its own.
+// Once its game is won or runs out of time the session keeps answering OVER, until it is closed
+// or goes IDLE_TIMEOUT_MS without a request; it then cancels its timers and tells the server to
+// drop it.
+public class GameSession {
+    static final int FLIP_DELAY_MS = 1000;
+    static final int IDLE_TIMEOUT_MS = 60_000;
+    private static final int MAX_MESSAGES_PER_RUN = 64;
+
+    private final long id;
+    private final String playerName;
+    private final GameModel model;
+    private final GameJournal journal;
+    private final ScoreManager scoreManager;
+    private final Executor executor;
+    private final TimingWheel timers;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final TimingWheel.Timeout gameTimer;
+    private final TimingWheel.Timeout flipTimer;
+    private final TimingWheel.Timeout idleTimer;
+    private final Consumer<GameSession> onClosed;
+    private boolean flipPending;
+    private int flipIndex1, flipIndex2;
+    private boolean finished;
+    // Written only by the actor; read elsewhere to skip idle re-scheduling once it is closed
+    private volatile boolean closed;
+
+    GameSession(long id, String playerName, GameModel model, ScoreManager scoreManager,
+                Executor executor, TimingWheel timers, Consumer<GameSession> onClosed) {
+        this.id = id;
+        this.playerName = playerName;
+        this.model = model;
+        this.scoreManager = scoreManager;
+        this.executor = executor;
+        this.timers = timers;
+        this.onClosed = onClosed;
+        this.journal = GameJournal.open(model);
+        // Expiries are posted to the mailbox; the messages are created once per session
+        Runnable tick = this::tick;
+        Runnable flipBack = this::flipBack;
+        Runnable close = this::close;
+        this.gameTimer = new TimingWheel.Timeout(() -> send(tick));
+        this.flipTimer = new TimingWheel.Timeout(() -> send(flipBack));
+        this.idleTimer = new TimingWheel.Timeout(() -> send(close));
+    }
+
+    public long getId() { return id; }
+
+    void start() {
+        timers.scheduleRepeating(gameTimer, 1000, 1000);
+        timers.schedule(idleTimer, IDLE_TIMEOUT_MS);
+    }
+
+    void send(Runnable message) {
+        mailbox.add(message);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    // A request from a client; it also pushes the idle timeout back
+    <T> CompletableFuture<T> ask(Supplier<T> message) {
+        if (!closed) {
+            timers.schedule(idleTimer, IDLE_TIMEOUT_MS);
+        }
+        CompletableFuture<T> reply = new CompletableFuture<>();
+        send(() -> {
+            try {
+                reply.complete(message.get());
+            } catch (RuntimeException e) {
+                reply.completeExceptionally(e);
+            }
+        });
+        return reply;
+    }
+
+    // Runs a bounded batch so one busy session cannot hog a pool thread
+    private void drain() {
+        Runnable message;
+        int processed = 0;
+        while (processed++ < MAX_MESSAGES_PER_RUN && (message = mailbox.poll()) != null) {
+            try {
+                message.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error in session " + id + ": " + e.getMessage());
+            }
+        }
+        scheduled.set(false);
+        if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    String pick(int index) {
+        if (index < 0 || index >= model.getCardCount()) {
+            return "ERR card index out of range";
+        }
+        if (finished) {
+            return "OVER";
+        }
+        if (flipPending) {
+            return "BUSY";
+        }
+        int result = model.selectCard(index);
+        if (result != GameModel.IGNORED) {
+            journal.append(index, result);
+        }
+        if (result == GameModel.MISMATCH) {
+            flipPending = true;
+            flipIndex1 = model.getPreviousPick();
+            flipIndex2 = index;
+            timers.schedule(flipTimer, FLIP_DELAY_MS);
+        } else if (result == GameModel.MATCH && model.getPairsFound() == model.getTotalPairs()) {
+            finish(true);
+        }
+        return "OK " + resultName(result) + " " + model.getSymbolId(index) + " " + model.getAttempts()
+            + " " + model.getPairsFound() + " " + model.getTotalPairs();
+    }
+
+    String state() {
+        return "OK " + (finished ? "OVER" : flipPending ? "BUSY" : "ACTIVE") + " " + model.getAttempts()
+            + " " + model.getPairsFound() + " " + model.getTotalPairs() + " " + model.getTimeLeft();
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        if (!finished) {
+            finish(false);
+        }
+        closed = true;
+        timers.cancel(idleTimer);
+        onClosed.accept(this);
+    }
+
+    private void flipBack() {
+        flipPending = false;
+        if (!finished) {
+            model.flipNonMatchingCards(flipIndex1, flipIndex2);
+        }
+    }
+
+    private void tick() {
+        if (finished) {
+            return;
+        }
+        model.setTimeLeft(model.getTimeLeft() - 1);
+        if (model.getTimeLeft() <= 0) {
+            finish(false);
+        }
+    }
+
+    private void finish(boolean won) {
+        finished = true;
+        timers.cancel(gameTimer);
+        timers.cancel(flipTimer);
+        model.setGameActive(false);
+        journal.close();
+        if (won) {
+            ScoreEntry score = new ScoreEntry(playerName, model.getDifficultyText(), model.getAttempts(), model.getTimeLeft());
+            scoreManager.addScore(score);
+        }
+    }
+
+    static String resultName(int result) {
+        switch (result) {
+            case GameModel.FIRST_PICK: return "FIRST_PICK";
+            case GameModel.MATCH: return "MATCH";
+            case GameModel.MISMATCH: return "MISMATCH";
+            default: return "IGNORED";
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package SimulationClasses;
+
+import java.util.SplittableRandom;
+
+import ModelClasses.GameModel;
+
+// Keeps the set of unmatched cards with O(1) removal so bots never scan the board
+public abstract class AbstractBot implements BotStrategy {
+    protected int[] unmatched = new int[0];
+    protected int[] position = new int[0];
+    protected int unmatchedCount;
+    protected int firstPick = -1;
+    protected SplittableRandom random;
+
+    @Override
+    public void newGame(GameModel model, SplittableRandom random) {
+        this.random = random;
+        int cardCount = model.getCardCount();
+        if (unmatched.length != cardCount) {
+            unmatched = new int[cardCount];
+            position = new int[cardCount];
+        }
+        for (int i = 0; i < cardCount; i++) {
+            unmatched[i] = i;
+            position[i] = i;
+        }
+        unmatchedCount = cardCount;
+        firstPick = -1;
+    }
+
+    @Override
+    public void cardRevealed(GameModel model, int index, int result) {
+        if (result == GameModel.FIRST_PICK) {
+            firstPick = index;
+            return;
+        }
+        if (result == GameModel.MATCH) {
+            removeUnmatched(firstPick);
+            removeUnmatched(index);
+        }
+        firstPick = -1;
+    }
+
+    // Any unmatched card other than the one already face up
+    protected int randomCard() {
+        int index = unmatched[random.nextInt(unmatchedCount)];
+        if (index == firstPick) {
+            int pos = position[index] + 1 + random.nextInt(unmatchedCount - 1);
+            index = unmatched[pos % unmatchedCount];
+        }
+        return index;
+    }
+
+    private void removeUnmatched(int index) {
+        int pos = position[index];
+        int last = unmatched[--unmatchedCount];
+        unmatched[pos] = last;
+        position[last] = pos;
+        unmatched[unmatchedCount] = index;
+        position[index] = unmatchedCount;
+    }
+}
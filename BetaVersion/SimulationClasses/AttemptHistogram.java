@@ -0,0 +1,66 @@
+package SimulationClasses;
+
+// Counts finished games by number of attempts; anything past the last bucket is lumped together
+public class AttemptHistogram {
+    private final long[] counts;
+    private long overflow;
+    private long unfinished;
+    private long games;
+    private long totalAttempts;
+
+    public AttemptHistogram(int maxAttempts) {
+        counts = new long[maxAttempts + 1];
+    }
+
+    public void record(int attempts) {
+        games++;
+        totalAttempts += attempts;
+        if (attempts < counts.length) {
+            counts[attempts]++;
+        } else {
+            overflow++;
+        }
+    }
+
+    public void recordUnfinished() {
+        unfinished++;
+    }
+
+    public void merge(AttemptHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        overflow += other.overflow;
+        unfinished += other.unfinished;
+        games += other.games;
+        totalAttempts += other.totalAttempts;
+    }
+
+    public long getGames() { return games; }
+    public long getUnfinished() { return unfinished; }
+    public long getCount(int attempts) { return counts[attempts]; }
+    public int getMaxAttempts() { return counts.length - 1; }
+
+    public double getMean() {
+        return games == 0 ? 0 : (double) totalAttempts / games;
+    }
+
+    public int getPercentile(double percentile) {
+        long target = (long) Math.ceil(games * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target && seen > 0) {
+                return i;
+            }
+        }
+        return counts.length;
+    }
+
+    public int getMin() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) return i;
+        }
+        return overflow > 0 ? counts.length : 0;
+    }
+}
@@ -0,0 +1,28 @@
+package SimulationClasses;
+
+import java.util.SplittableRandom;
+
+import ModelClasses.GameModel;
+
+// A bot plays one game at a time against a GameModel. Instances are reused for many
+// games on the same worker thread, so implementations should keep their arrays between games.
+public interface BotStrategy {
+    void newGame(GameModel model, SplittableRandom random);
+
+    int nextCard(GameModel model);
+
+    void cardRevealed(GameModel model, int index, int result);
+
+    static BotStrategy forName(String name) {
+        if (name.equals("random")) {
+            return new RandomBot();
+        }
+        if (name.equals("perfect")) {
+            return new MemoryBot(Integer.MAX_VALUE);
+        }
+        if (name.startsWith("forgetful:")) {
+            return new MemoryBot(Integer.parseInt(name.substring("forgetful:".length())));
+        }
+        throw new IllegalArgumentException("Unknown bot: " + name + " (use random, perfect or forgetful:N)");
+    }
+}
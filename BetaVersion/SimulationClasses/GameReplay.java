@@ -0,0 +1,77 @@
+package SimulationClasses;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ModelClasses.GameModel;
+import ModelClasses.GameRecording;
+
+// Rebuilds a recorded game from its seed and move stream. A snapshot is kept every
+// snapshotInterval moves, so seek() replays at most that many moves.
+public class GameReplay {
+    private final GameRecording recording;
+    private final GameModel model;
+    private final int snapshotInterval;
+    private final List<GameModel.Snapshot> snapshots = new ArrayList<>();
+    private int position;
+    private int divergence = -1;
+
+    public GameReplay(GameRecording recording, int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotInterval);
+        }
+        this.recording = recording;
+        this.snapshotInterval = snapshotInterval;
+        this.model = new GameModel(recording.getGridSize());
+        model.initializeGame(recording.getSeed());
+        snapshots.add(model.snapshot());
+    }
+
+    public GameModel getModel() { return model; }
+    public int getPosition() { return position; }
+    public int getMoveCount() { return recording.getMoveCount(); }
+
+    // First move whose replayed result differs from the recorded one, or -1
+    public int getDivergence() { return divergence; }
+
+    // Leaves the model in the state right after the given number of moves
+    public GameModel seek(int moves) {
+        if (moves < 0 || moves > recording.getMoveCount()) {
+            throw new IndexOutOfBoundsException("Move " + moves + " out of " + recording.getMoveCount());
+        }
+        if (moves < position || moves - position > snapshotInterval) {
+            int slot = Math.min(moves / snapshotInterval, snapshots.size() - 1);
+            if (moves < position || slot * snapshotInterval > position) {
+                model.restore(snapshots.get(slot));
+                position = slot * snapshotInterval;
+            }
+        }
+        while (position < moves) {
+            step();
+        }
+        return model;
+    }
+
+    // Replays the whole game and reports whether every result matched the recording
+    public boolean verify() {
+        seek(recording.getMoveCount());
+        return divergence < 0;
+    }
+
+    private void step() {
+        int move = position;
+        // The player only saw a mismatched pair face up until the flip timer turned it back
+        if (move > 0 && recording.getResult(move - 1) == GameModel.MISMATCH && !model.isGameActive()) {
+            model.flipNonMatchingCards(model.getPreviousPick(), recording.getCardIndex(move - 1));
+        }
+        int cardIndex = recording.getCardIndex(move);
+        int result = cardIndex < model.getCardCount() ? model.selectCard(cardIndex) : GameModel.IGNORED;
+        if (result != recording.getResult(move) && (divergence < 0 || move < divergence)) {
+            divergence = move;
+        }
+        position++;
+        if (position % snapshotInterval == 0 && position / snapshotInterval == snapshots.size()) {
+            snapshots.add(model.snapshot());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package SimulationClasses;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import ModelClasses.GameModel;
+
+// Plays complete games headlessly on a fork/join pool: no Swing, no timers, no sound.
+public class GameSimulator {
+    private static final int GAMES_PER_TASK = 4096;
+
+    private final ForkJoinPool pool;
+    private final Supplier<BotStrategy> bots;
+
+    public GameSimulator(ForkJoinPool pool, Supplier<BotStrategy> bots) {
+        this.pool = pool;
+        this.bots = bots;
+    }
+
+    public AttemptHistogram run(int gridSize, long games, long seed) {
+        int maxAttempts = maxAttempts(gridSize);
+        return pool.invoke(new SimulationTask(gridSize, maxAttempts, 0, games, new SplittableRandom(seed)));
+    }
+
+    // Generous cap so a hopeless bot cannot spin forever
+    static int maxAttempts(int gridSize) {
+        long pairs = (long) gridSize * gridSize / 2;
+        return (int) Math.min(Integer.MAX_VALUE - 1, Math.max(64, pairs * pairs * 4));
+    }
+
+    private class SimulationTask extends RecursiveTask<AttemptHistogram> {
+        private final int gridSize, maxAttempts;
+        private final long from, to;
+        private final SplittableRandom random;
+
+        SimulationTask(int gridSize, int maxAttempts, long from, long to, SplittableRandom random) {
+            this.gridSize = gridSize;
+            this.maxAttempts = maxAttempts;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected AttemptHistogram compute() {
+            if (to - from > GAMES_PER_TASK) {
+                long mid = (from + to) >>> 1;
+                SimulationTask left = new SimulationTask(gridSize, maxAttempts, from, mid, random.split());
+                left.fork();
+                AttemptHistogram result = new SimulationTask(gridSize, maxAttempts, mid, to, random).compute();
+                result.merge(left.join());
+                return result;
+            }
+
+            AttemptHistogram histogram = new AttemptHistogram(Math.min(maxAttempts, 1 << 16));
+            GameModel model = new GameModel(gridSize);
+            BotStrategy bot = bots.get();
+            for (long game = from; game < to; game++) {
+                int attempts = playGame(model, bot, random, maxAttempts);
+                if (attempts < 0) {
+                    histogram.recordUnfinished();
+                } else {
+                    histogram.record(attempts);
+                }
+            }
+            return histogram;
+        }
+    }
+
+    // Returns the attempts needed to clear the board, or -1 if the bot gave up or misplayed
+    static int playGame(GameModel model, BotStrategy bot, SplittableRandom random, int maxAttempts) {
+        model.initializeGame(random.nextLong());
+        bot.newGame(model, random);
+        int totalPairs = model.getTotalPairs();
+        while (model.getPairsFound() < totalPairs) {
+            if (model.getAttempts() >= maxAttempts) {
+                return -1;
+            }
+            int index = bot.nextCard(model);
+            int result = model.selectCard(index);
+            if (result == GameModel.IGNORED) {
+                return -1;
+            }
+            bot.cardRevealed(model, index, result);
+            if (result == GameModel.MISMATCH) {
+                model.flipNonMatchingCards(model.getPreviousPick(), index);
+            }
+        }
+        return model.getAttempts();
+    }
+
+    public static void main(String[] args) {
+        long games = 1_000_000;
+        String gridSizes = "4,6,8";
+        String botName = "perfect";
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--games": games = Long.parseLong(args[i + 1]); break;
+                case "--grid": gridSizes = args[i + 1]; break;
+                case "--bot": botName = args[i + 1]; break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        final String bot = botName;
+        BotStrategy.forName(bot); // fail fast on a bad name
+        GameSimulator simulator = new GameSimulator(new ForkJoinPool(threads), () -> BotStrategy.forName(bot));
+
+        System.out.printf("bot=%s games=%d threads=%d seed=%d%n", bot, games, threads, seed);
+        System.out.printf("%-6s %-12s %-8s %-6s %-6s %-6s %-6s %-6s %-10s %-8s%n",
+            "grid", "games", "mean", "min", "p50", "p90", "p99", "max", "unfinished", "seconds");
+        for (String size : gridSizes.split(",")) {
+            int gridSize = Integer.parseInt(size.trim());
+            long start = System.nanoTime();
+            AttemptHistogram histogram = simulator.run(gridSize, games, seed + gridSize);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-6s %-12d %-8.2f %-6d %-6d %-6d %-6d %-6d %-10d %-8.2f%n",
+                gridSize + "x" + gridSize, histogram.getGames(), histogram.getMean(), histogram.getMin(),
+                histogram.getPercentile(50), histogram.getPercentile(90), histogram.getPercentile(99),
+                histogram.getPercentile(100), histogram.getUnfinished(), seconds);
+        }
+    }
+}
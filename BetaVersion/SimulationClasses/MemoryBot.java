@@ -0,0 +1,107 @@
+package SimulationClasses;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import ModelClasses.GameModel;
+
+// Remembers every card it has seen for memorySpan attempts; Integer.MAX_VALUE plays with perfect memory
+public class MemoryBot extends AbstractBot {
+    private static final int EXPLORE_TRIES = 16;
+
+    private final int memorySpan;
+    private int[] seenSymbol = new int[0];
+    private int[] seenTurn = new int[0];
+    private int[] knownBySymbol = new int[0];
+    private int plannedSecond = -1;
+    private int pendingA = -1, pendingB = -1;
+    private int turn;
+
+    public MemoryBot(int memorySpan) {
+        this.memorySpan = memorySpan;
+    }
+
+    @Override
+    public void newGame(GameModel model, SplittableRandom random) {
+        super.newGame(model, random);
+        int cardCount = model.getCardCount();
+        if (seenSymbol.length != cardCount) {
+            seenSymbol = new int[cardCount];
+            seenTurn = new int[cardCount];
+            knownBySymbol = new int[Math.max(1, model.getTotalPairs())];
+        }
+        Arrays.fill(seenTurn, -1);
+        Arrays.fill(knownBySymbol, -1);
+        plannedSecond = -1;
+        pendingA = -1;
+        pendingB = -1;
+        turn = 0;
+    }
+
+    @Override
+    public int nextCard(GameModel model) {
+        turn = model.getAttempts();
+        if (firstPick == -1) {
+            if (pendingA >= 0 && remembers(model, pendingA) && remembers(model, pendingB)) {
+                plannedSecond = pendingB;
+                int card = pendingA;
+                pendingA = pendingB = -1;
+                return card;
+            }
+            pendingA = pendingB = -1;
+            return unknownCard();
+        }
+
+        if (plannedSecond >= 0) {
+            int card = plannedSecond;
+            plannedSecond = -1;
+            return card;
+        }
+        int known = knownBySymbol[seenSymbol[firstPick]];
+        if (known != firstPick && remembers(model, known)) {
+            return known;
+        }
+        return unknownCard();
+    }
+
+    @Override
+    public void cardRevealed(GameModel model, int index, int result) {
+        int symbol = model.getSymbolId(index);
+        int known = knownBySymbol[symbol];
+        boolean pairKnown = known != index && remembers(model, known);
+        seenSymbol[index] = symbol;
+        seenTurn[index] = turn;
+
+        if (result == GameModel.FIRST_PICK && pairKnown) {
+            if (plannedSecond < 0) {
+                plannedSecond = known;
+            }
+        } else if (result == GameModel.MISMATCH && pairKnown) {
+            pendingA = known;
+            pendingB = index;
+        } else if (result == GameModel.MATCH) {
+            if (known == index || known == firstPick) {
+                knownBySymbol[symbol] = -1;
+            }
+        } else {
+            knownBySymbol[symbol] = index;
+        }
+        super.cardRevealed(model, index, result);
+    }
+
+    private boolean remembers(GameModel model, int index) {
+        return index >= 0 && seenTurn[index] >= 0 && turn - seenTurn[index] <= memorySpan
+            && !model.isMatched(index);
+    }
+
+    // Prefer cards it does not currently remember; fall back to any card late in the game
+    private int unknownCard() {
+        for (int i = 0; i < EXPLORE_TRIES; i++) {
+            int card = randomCard();
+            if (seenTurn[card] < 0 || turn - seenTurn[card] > memorySpan) {
+                return card;
+            }
+        }
+        return randomCard();
+    }
+}
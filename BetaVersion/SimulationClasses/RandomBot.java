@@ -0,0 +1,11 @@
+package SimulationClasses;
+
+import ModelClasses.GameModel;
+
+// Remembers nothing and turns over random unmatched cards
+public class RandomBot extends AbstractBot {
+    @Override
+    public int nextCard(GameModel model) {
+        return randomCard();
+    }
+}
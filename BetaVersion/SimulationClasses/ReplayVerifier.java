@@ -0,0 +1,78 @@
+package SimulationClasses;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import ModelClasses.GameJournal;
+import ModelClasses.GameModel;
+import ModelClasses.GameRecording;
+
+// Headless batch mode: replays every journal in a directory across all cores and reports
+// the ones that do not reproduce. With --show it prints one game's board at a given move.
+public class ReplayVerifier {
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && args[0].equals("--show")) {
+            show(Paths.get(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+
+        Path directory = Paths.get(args.length > 0 ? args[0] : GameJournal.JOURNAL_DIR);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(f -> f.toString().endsWith(GameJournal.FILE_EXTENSION)).collect(Collectors.toList());
+        }
+
+        AtomicLong verified = new AtomicLong();
+        AtomicLong diverged = new AtomicLong();
+        AtomicLong unreadable = new AtomicLong();
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        pool.submit(() -> files.parallelStream().forEach(file -> {
+            try {
+                GameReplay replay = new GameReplay(GameRecording.load(file), Integer.MAX_VALUE);
+                if (replay.verify()) {
+                    verified.incrementAndGet();
+                } else {
+                    diverged.incrementAndGet();
+                    System.out.println("DIVERGED at move " + replay.getDivergence() + ": " + file);
+                }
+            } catch (IOException | RuntimeException e) {
+                unreadable.incrementAndGet();
+                System.out.println("UNREADABLE " + file + ": " + e.getMessage());
+            }
+        })).get();
+        pool.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d verified, %d diverged, %d unreadable in %.2fs (%.0f replays/s)%n",
+            verified.get(), diverged.get(), unreadable.get(), seconds, files.size() / Math.max(seconds, 1e-9));
+    }
+
+    private static void show(Path file, int move) throws IOException {
+        GameRecording recording = GameRecording.load(file);
+        GameReplay replay = new GameReplay(recording, 64);
+        GameModel model = replay.seek(Math.min(move, recording.getMoveCount()));
+        System.out.printf("seed=%d grid=%d move=%d/%d attempts=%d pairs=%d/%d%n",
+            recording.getSeed(), recording.getGridSize(), replay.getPosition(), recording.getMoveCount(),
+            model.getAttempts(), model.getPairsFound(), model.getTotalPairs());
+        int gridSize = model.getGridSize();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < model.getCardCount(); i++) {
+            String cell = model.isMatched(i) ? "[" + model.getSymbol(i) + "]"
+                : model.isFlipped(i) ? " " + model.getSymbol(i) + " " : " ? ";
+            sb.append(String.format("%-6s", cell));
+            if ((i + 1) % gridSize == 0) {
+                sb.append('\n');
+            }
+        }
+        System.out.print(sb);
+    }
+}
@@ -0,0 +1,270 @@
+package ViewClasses;
+
+import javax.swing.*;
+
+import ModelClasses.Card;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.function.IntConsumer;
+
+// One component for the whole board. Cards are a few parallel arrays painted straight onto the
+// component, a click or hover maps to a card index with a division, and every state change
+// repaints just the cells it touched, so the cost of a frame follows the cells in the clip rather
+// than the size of the board.
+//
+// Cards have the JButton behaviour players are used to: brighter under the mouse, darker while
+// pressed, and a click only counts when the button is released over the card it went down on.
+// Matched cards ignore the mouse. With stretch set the cells grow to fill the component, as a
+// GridLayout would; otherwise they keep cellSize and the board belongs in a scroll pane.
+public class BoardCanvas extends JComponent {
+    public static final byte BACK = 0;
+    public static final byte FRONT = 1;
+    public static final byte MATCHED = 2;
+
+    private static final Color OUTLINE_COLOR = new Color(100, 100, 100);
+
+    private final int gridSize;
+    private final int cardCount;
+    private final int cellSize;
+    private final int gap;
+    private final int arc;
+    private final byte[] states;
+    private final String[] labels;
+    private final Color[] fills = new Color[3];
+    private final Color backHover, backPressed, frontHover, frontPressed;
+    private final Font labelFont;
+    private boolean stretch;
+    private IntConsumer clickListener;
+    private int hoverIndex = -1;
+    private int pressedIndex = -1;
+
+    // Cell geometry for the current size; see layoutCells
+    private int originX, originY, cellWidth, cellHeight;
+    private final Rectangle cell = new Rectangle();
+
+    // arc 0 paints square cells without antialiasing or outline, which is what huge boards want
+    public BoardCanvas(int gridSize, int cardCount, int cellSize, int gap, int arc, Font labelFont,
+                       Color backColor, Color frontColor, Color matchedColor) {
+        this.gridSize = gridSize;
+        this.cardCount = cardCount;
+        this.cellSize = cellSize;
+        this.gap = gap;
+        this.arc = arc;
+        this.labelFont = labelFont;
+        this.states = new byte[cardCount];
+        this.labels = new String[cardCount];
+        fills[BACK] = backColor;
+        fills[FRONT] = frontColor;
+        fills[MATCHED] = matchedColor;
+        backHover = backColor.brighter();
+        backPressed = backColor.darker();
+        frontHover = frontColor.brighter();
+        frontPressed = frontColor.darker();
+
+        setOpaque(false);
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHover(indexAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                setHover(indexAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHover(-1);
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (SwingUtilities.isLeftMouseButton(e)) {
+                    setPressed(indexAt(e.getX(), e.getY()));
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) {
+                    return;
+                }
+                int index = pressedIndex;
+                setPressed(-1);
+                if (index >= 0 && index == indexAt(e.getX(), e.getY()) && clickListener != null) {
+                    clickListener.accept(index);
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    public void setStretch(boolean stretch) {
+        this.stretch = stretch;
+        revalidate();
+        repaint();
+    }
+
+    public void setClickListener(IntConsumer listener) {
+        this.clickListener = listener;
+    }
+
+    public int getCardCount() {
+        return cardCount;
+    }
+
+    public byte getState(int index) {
+        return states[index];
+    }
+
+    public void updateCard(int index, Card card) {
+        byte state = card.isMatched() ? MATCHED : card.isFlipped() ? FRONT : BACK;
+        setCard(index, state, state == BACK ? null : card.getSymbol());
+    }
+
+    public void setCard(int index, byte state, String label) {
+        states[index] = state;
+        labels[index] = label;
+        repaintCell(index);
+    }
+
+    // The card under a point, or -1 over a gap, past the last card or outside the grid
+    public int indexAt(int x, int y) {
+        layoutCells();
+        int dx = x - originX;
+        int dy = y - originY;
+        if (dx < 0 || dy < 0) {
+            return -1;
+        }
+        int col = dx / (cellWidth + gap);
+        int row = dy / (cellHeight + gap);
+        if (col >= gridSize || row >= gridSize || dx % (cellWidth + gap) >= cellWidth
+            || dy % (cellHeight + gap) >= cellHeight) {
+            return -1;
+        }
+        int index = row * gridSize + col;
+        return index < cardCount ? index : -1;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int side = gridSize * cellSize + (gridSize - 1) * gap;
+        return new Dimension(side, side);
+    }
+
+    private void setHover(int index) {
+        if (index >= 0 && states[index] == MATCHED) {
+            index = -1;
+        }
+        if (index != hoverIndex) {
+            int previous = hoverIndex;
+            hoverIndex = index;
+            repaintCell(previous);
+            repaintCell(index);
+        }
+    }
+
+    private void setPressed(int index) {
+        if (index >= 0 && states[index] == MATCHED) {
+            index = -1;
+        }
+        if (index != pressedIndex) {
+            int previous = pressedIndex;
+            pressedIndex = index;
+            repaintCell(previous);
+            repaintCell(index);
+        }
+    }
+
+    private void repaintCell(int index) {
+        if (index < 0) {
+            return;
+        }
+        layoutCells();
+        cellBounds(index);
+        repaint(cell.x, cell.y, cell.width, cell.height);
+    }
+
+    private void layoutCells() {
+        if (stretch) {
+            cellWidth = Math.max(1, (getWidth() - (gridSize - 1) * gap) / gridSize);
+            cellHeight = Math.max(1, (getHeight() - (gridSize - 1) * gap) / gridSize);
+            // Whatever does not divide evenly is split around the grid
+            originX = Math.max(0, (getWidth() - gridSize * cellWidth - (gridSize - 1) * gap) / 2);
+            originY = Math.max(0, (getHeight() - gridSize * cellHeight - (gridSize - 1) * gap) / 2);
+        } else {
+            cellWidth = cellHeight = cellSize;
+            originX = originY = 0;
+        }
+    }
+
+    private void cellBounds(int index) {
+        cell.setBounds(originX + (index % gridSize) * (cellWidth + gap), originY + (index / gridSize) * (cellHeight + gap),
+            cellWidth, cellHeight);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        layoutCells();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int pitchX = cellWidth + gap;
+        int pitchY = cellHeight + gap;
+        int firstCol = Math.max(0, (clip.x - originX) / pitchX);
+        int lastCol = Math.min(gridSize - 1, (clip.x + clip.width - originX) / pitchX);
+        int firstRow = Math.max(0, (clip.y - originY) / pitchY);
+        int lastRow = Math.min(gridSize - 1, (clip.y + clip.height - originY) / pitchY);
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        if (arc > 0) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        }
+        g2.setFont(labelFont);
+        FontMetrics metrics = g2.getFontMetrics();
+        int baseline = (cellHeight + metrics.getAscent() - metrics.getDescent()) / 2;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int index = row * gridSize + col;
+                if (index >= cardCount) {
+                    break;
+                }
+                int x = originX + col * pitchX;
+                int y = originY + row * pitchY;
+                g2.setColor(fill(index));
+                if (arc > 0) {
+                    g2.fillRoundRect(x, y, cellWidth, cellHeight, arc, arc);
+                    g2.setColor(OUTLINE_COLOR);
+                    g2.drawRoundRect(x, y, cellWidth - 1, cellHeight - 1, arc, arc);
+                } else {
+                    g2.fillRect(x, y, cellWidth, cellHeight);
+                }
+
+                String label = labels[index];
+                if (label != null) {
+                    g2.setColor(Color.BLACK);
+                    g2.drawString(label, x + (cellWidth - metrics.stringWidth(label)) / 2, y + baseline);
+                }
+            }
+        }
+        g2.dispose();
+    }
+
+    private Color fill(int index) {
+        byte state = states[index];
+        if (state != MATCHED) {
+            if (index == pressedIndex) {
+                return state == FRONT ? frontPressed : backPressed;
+            }
+            if (index == hoverIndex) {
+                return state == FRONT ? frontHover : backHover;
+            }
+        }
+        return fills[state];
+    }
+}
@@ -3,9 +3,11 @@ package ViewClasses;
 import javax.swing.*;
 
 import ModelClasses.Card;
+import ModelClasses.GameModel;
 
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.util.function.IntConsumer;
 
 import javax.swing.*;
 import java.awt.*;
@@ -15,14 +17,16 @@ public class GameView {
     private JFrame frame;
     private JPanel gamePanel;
     private JLabel statusLabel, timerLabel;
-    private JButton[] cardButtons;
+    private BoardCanvas board;
+    private int preparedGridSize;
     private JButton backButton;
     
-    private final Color MATCHED_COLOR = new Color(100, 255, 100);
-    private final Color TIME_WARNING_COLOR = new Color(255, 80, 80);
-    private final Color CARD_BACK_COLOR = new Color(80, 140, 220);
-    private final Color CARD_FRONT_COLOR = new Color(245, 245, 245);
-    private final Font BUTTON_FONT = new Font("Arial Rounded MT Bold", Font.PLAIN, 18);
+    private static final Color MATCHED_COLOR = new Color(100, 255, 100);
+    private static final Color TIME_WARNING_COLOR = new Color(255, 80, 80);
+    private static final Color CARD_BACK_COLOR = new Color(80, 140, 220);
+    private static final Color CARD_FRONT_COLOR = new Color(245, 245, 245);
+    private static final Font BUTTON_FONT = new Font("Arial Rounded MT Bold", Font.PLAIN, 18);
+    private static final int HUGE_CELL_SIZE = 28;
     
     public GameView() {
         frame = new JFrame("Memory Card Game");
@@ -63,62 +67,50 @@ public class GameView {
         frame.add(statusPanel, BorderLayout.SOUTH);
     }
     
+    // Builds the board ahead of time; the next initializeGameBoard for this size reuses it
+    public void prepareGameBoard(int gridSize) {
+        initializeGameBoard(gridSize);
+        preparedGridSize = gridSize;
+    }
+    
     public void initializeGameBoard(int gridSize) {
+        if (preparedGridSize == gridSize) {
+            preparedGridSize = 0;
+            return;
+        }
+        preparedGridSize = 0;
         gamePanel.removeAll();
-        gamePanel.setLayout(new GridLayout(gridSize, gridSize, 10, 10));
-        
-        int cardSize = gridSize <= 4 ? 120 : gridSize == 6 ? 90 : 70;
-        cardButtons = new JButton[gridSize * gridSize];
-        
-        for (int i = 0; i < cardButtons.length; i++) {
-            cardButtons[i] = createCardButton(cardSize, gridSize);
-            gamePanel.add(cardButtons[i]);
+        gamePanel.setLayout(new BorderLayout());
+        int cardCount = (gridSize * gridSize) / 2 * 2;
+        if (gridSize > GameModel.MAX_STANDARD_GRID_SIZE) {
+            board = new BoardCanvas(gridSize, cardCount, HUGE_CELL_SIZE, 2, 0, new Font("Arial", Font.BOLD, 11),
+                CARD_BACK_COLOR, CARD_FRONT_COLOR, MATCHED_COLOR);
+            
+            JScrollPane scrollPane = new JScrollPane(board);
+            scrollPane.setBorder(BorderFactory.createEmptyBorder());
+            scrollPane.getViewport().setBackground(gamePanel.getBackground());
+            scrollPane.getVerticalScrollBar().setUnitIncrement(HUGE_CELL_SIZE);
+            scrollPane.getHorizontalScrollBar().setUnitIncrement(HUGE_CELL_SIZE);
+            gamePanel.add(scrollPane, BorderLayout.CENTER);
+        } else {
+            board = createBoard(gridSize);
+            gamePanel.add(board, BorderLayout.CENTER);
         }
         
         frame.revalidate();
         frame.repaint();
     }
     
-    private JButton createCardButton(int size, int gridSize) {
-        JButton button = new JButton() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                
-                if (!isEnabled()) {
-                    g2.setColor(MATCHED_COLOR);
-                } else if (getModel().isPressed()) {
-                    g2.setColor(getBackground().darker());
-                } else if (getModel().isRollover()) {
-                    g2.setColor(getBackground().brighter());
-                } else {
-                    g2.setColor(getBackground());
-                }
-                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 25, 25);
-                
-                g2.setColor(new Color(100, 100, 100));
-                g2.drawRoundRect(0, 0, getWidth()-1, getHeight()-1, 25, 25);
-                g2.dispose();
-                
-                super.paintComponent(g);
-            }
-        };
-        
-        button.setPreferredSize(new Dimension(size, size));
-        button.setMinimumSize(new Dimension(size, size));
-        button.setMaximumSize(new Dimension(size, size));
-        button.setBackground(CARD_BACK_COLOR);
-        button.setFont(getCardFont(gridSize));
-        button.setForeground(Color.WHITE);
-        button.setOpaque(false);
-        button.setBorder(BorderFactory.createEmptyBorder());
-        button.setContentAreaFilled(false);
-        
-        return button;
+    // A standard board: rounded cards that stretch with the window, 10 px apart
+    public static BoardCanvas createBoard(int gridSize) {
+        int cardSize = gridSize <= 4 ? 120 : gridSize == 6 ? 90 : 70;
+        BoardCanvas board = new BoardCanvas(gridSize, gridSize * gridSize, cardSize, 10, 25, getCardFont(gridSize),
+            CARD_BACK_COLOR, CARD_FRONT_COLOR, MATCHED_COLOR);
+        board.setStretch(true);
+        return board;
     }
     
-    private Font getCardFont(int gridSize) {
+    private static Font getCardFont(int gridSize) {
         int size;
         if (gridSize <= 4) size = 36;
         else if (gridSize == 6) size = 28;
@@ -127,16 +119,11 @@ public class GameView {
     }
     
     public void updateCard(int index, Card card) {
-        if (card.isFlipped() || card.isMatched()) {
-            cardButtons[index].setText(card.getSymbol());
-            cardButtons[index].setBackground(card.isMatched() ? MATCHED_COLOR : CARD_FRONT_COLOR);
-            cardButtons[index].setForeground(Color.BLACK);
-            cardButtons[index].setEnabled(!card.isMatched());
-        } else {
-            cardButtons[index].setText("");
-            cardButtons[index].setBackground(CARD_BACK_COLOR);
-            cardButtons[index].setForeground(Color.WHITE);
-        }
+        board.updateCard(index, card);
+    }
+    
+    public void showBoardSeed(long seed) {
+        frame.setTitle("Memory Card Game - Board " + Long.toUnsignedString(seed, 36).toUpperCase());
     }
     
     public void updateStatus(String status) {
@@ -148,8 +135,8 @@ public class GameView {
         timerLabel.setForeground(warning ? TIME_WARNING_COLOR : Color.WHITE);
     }
     
-    public void setCardListener(int index, ActionListener listener) {
-        cardButtons[index].addActionListener(listener);
+    public void setCardClickListener(IntConsumer listener) {
+        board.setClickListener(listener);
     }
     
     public void setBackButtonListener(ActionListener listener) {
@@ -67,7 +67,7 @@ public class MenuView {
         namePanel.add(playerNameField);
 
         // Difficulty Selection
-        JPanel difficultyPanel = new JPanel(new GridLayout(3, 1, 10, 10));
+        JPanel difficultyPanel = new JPanel(new GridLayout(4, 1, 10, 10));
         difficultyPanel.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(new Color(180, 180, 180)),
             "Select Difficulty",
@@ -77,10 +77,11 @@ public class MenuView {
         ));
         difficultyPanel.setBackground(new Color(240, 240, 240));
         
-        difficultyButtons = new JButton[3];
+        difficultyButtons = new JButton[4];
         difficultyButtons[0] = createMenuButton("Easy (4x4)");
         difficultyButtons[1] = createMenuButton("Medium (6x6)");
         difficultyButtons[2] = createMenuButton("Hard (8x8)");
+        difficultyButtons[3] = createMenuButton("Huge (1024x1024)");
         
         for (JButton button : difficultyButtons) {
             difficultyPanel.add(button);
@@ -10,10 +10,18 @@ import java.awt.*;
 import java.awt.event.ActionListener;
 import java.util.List;
 
+import ModelClasses.ScoreEntry;
+
 public class ScoreboardView {
     private JFrame frame;
     private JTextArea scoresArea;
     private JButton backButton;
+    private JTextField playerFilter;
+    private JComboBox<String> difficultyFilter;
+    private JComboBox<String> periodFilter;
+    
+    private static final String[] PERIODS = {"All time", "Last 24 hours", "Last 7 days", "Last 30 days"};
+    private static final int[] PERIOD_DAYS = {0, 1, 7, 30};
     
     private final Font TITLE_FONT = new Font("Arial Rounded MT Bold", Font.BOLD, 36);
     private final Font SCORE_FONT = new Font("Consolas", Font.PLAIN, 16);
@@ -39,7 +47,28 @@ public class ScoreboardView {
         titleLabel.setFont(TITLE_FONT);
         titleLabel.setForeground(new Color(50, 100, 150));
         titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
-        mainPanel.add(titleLabel, BorderLayout.NORTH);
+        
+        // Filters
+        String[] difficulties = new String[ScoreEntry.DIFFICULTIES.length + 1];
+        difficulties[0] = "All";
+        System.arraycopy(ScoreEntry.DIFFICULTIES, 0, difficulties, 1, ScoreEntry.DIFFICULTIES.length);
+        playerFilter = new JTextField(10);
+        playerFilter.setToolTipText("Player name; press Enter to apply");
+        difficultyFilter = new JComboBox<>(difficulties);
+        periodFilter = new JComboBox<>(PERIODS);
+        JPanel filterPanel = new JPanel();
+        filterPanel.setBackground(new Color(240, 240, 240));
+        filterPanel.add(new JLabel("Player:"));
+        filterPanel.add(playerFilter);
+        filterPanel.add(new JLabel("Difficulty:"));
+        filterPanel.add(difficultyFilter);
+        filterPanel.add(periodFilter);
+        
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(new Color(240, 240, 240));
+        headerPanel.add(titleLabel, BorderLayout.NORTH);
+        headerPanel.add(filterPanel, BorderLayout.SOUTH);
+        mainPanel.add(headerPanel, BorderLayout.NORTH);
 
         // Scores Area
         scoresArea = new JTextArea();
@@ -62,19 +91,16 @@ public class ScoreboardView {
         frame.add(mainPanel);
     }
     
-    public void displayScores(List<String> scores) {
+    public void displayScores(List<ScoreEntry> scores) {
         StringBuilder sb = new StringBuilder();
         if (scores.isEmpty()) {
             sb.append("No high scores yet!\nPlay a game to see your scores here.");
         } else {
             sb.append(String.format("%-20s %-10s %-10s %-10s\n", "Player", "Difficulty", "Attempts", "Time Left"));
             sb.append("------------------------------------------------\n");
-            for (String score : scores) {
-                String[] parts = score.split(",");
-                if (parts.length >= 4) {
-                    sb.append(String.format("%-20s %-10s %-10s %-10s\n", 
-                        parts[0], parts[1], parts[2], parts[3]));
-                }
+            for (ScoreEntry score : scores) {
+                sb.append(String.format("%-20s %-10s %-10d %-10s\n", 
+                    score.getPlayerName(), score.getDifficultyText(), score.getAttempts(), score.getTimeLeftText()));
             }
         }
         scoresArea.setText(sb.toString());
@@ -85,10 +111,36 @@ public class ScoreboardView {
         backButton.addActionListener(listener);
     }
     
+    // Fires when a filter changes, or Enter is pressed in the player field
+    public void setFilterListener(ActionListener listener) {
+        playerFilter.addActionListener(listener);
+        difficultyFilter.addActionListener(listener);
+        periodFilter.addActionListener(listener);
+    }
+    
+    // Empty for every player
+    public String getPlayerFilter() {
+        return playerFilter.getText().trim();
+    }
+    
+    // A ScoreEntry difficulty code, or -1 for all of them
+    public int getDifficultyFilter() {
+        return difficultyFilter.getSelectedIndex() - 1;
+    }
+    
+    // How many days back to look, or 0 for all time
+    public int getPeriodDays() {
+        return PERIOD_DAYS[periodFilter.getSelectedIndex()];
+    }
+    
     public void show() {
         frame.setVisible(true);
     }
     
+    public boolean isShowing() {
+        return frame.isVisible();
+    }
+    
     public void hide() {
         frame.setVisible(false);
     }
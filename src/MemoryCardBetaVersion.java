@@ -2,17 +2,28 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.*;
-import javax.swing.Timer;
 import javax.swing.border.TitledBorder;
-import javax.sound.sampled.*;
 import java.io.*;
 import java.nio.file.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import ControllerClasses.TimingWheel;
+import ModelClasses.GameModel;
+import ModelClasses.Leaderboard;
+import ModelClasses.ScoreEntry;
+import ModelClasses.ScoreStore;
+import ModelClasses.ScoreWatcher;
+import ModelClasses.SoundManager;
+import ViewClasses.BoardCanvas;
 
 public class MemoryCardBetaVersion extends JFrame {
     // Game Components
     private JPanel gamePanel, menuPanel, scoreboardPanel;
     private JButton startButton, scoreboardButton, backButton, soundToggleButton;
-    private JButton[] cards;
+    private BoardCanvas board;
+    private int[] cardSymbols;
     private JLabel statusLabel, timerLabel, titleLabel;
     private JTextField playerNameField;
     
@@ -31,18 +42,35 @@ public class MemoryCardBetaVersion extends JFrame {
     private int firstCardIndex = -1;
     private int pairsFound = 0;
     private int attempts = 0;
-    private Timer flipTimer;
-    private Timer gameTimer;
+    private final TimingWheel timers = TimingWheel.shared();
+    private final Runnable flipBackOnEdt = this::flipBack;
+    private final Runnable onSecondOnEdt = this::onSecond;
+    private final TimingWheel.Timeout flipTimer = new TimingWheel.Timeout(() -> SwingUtilities.invokeLater(flipBackOnEdt));
+    private final TimingWheel.Timeout gameTimer = new TimingWheel.Timeout(() -> SwingUtilities.invokeLater(onSecondOnEdt));
+    private boolean flipPending;
+    private int flipIndex1, flipIndex2;
     private int timeLeft = 180;
     private boolean isGameActive = false;
     private boolean isSoundEnabled = true;
+    private int streak;
+    private long boardSeed;
     
-    // Audio
-    private Clip matchSound, mismatchSound, winSound;
+    // Audio: synthesized in the background and opened on first play
+    private final SoundManager soundManager = new SoundManager();
     
-    // Score system
-    private ArrayList<String> highScores = new ArrayList<>();
-    private static final String SCORES_FILE = "highscores.txt";
+    // Score system: the boards are cached and only scores appended since the last refresh are
+    // read, whether this window or another instance sharing the directory wrote them. The store,
+    // leaderboard and position belong to scoreWorker; highScores is the EDT's copy for display.
+    private ArrayList<ScoreEntry> highScores = new ArrayList<>();
+    private final ExecutorService scoreWorker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "score-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Leaderboard leaderboard = new Leaderboard(10, false);
+    private long scorePosition;
+    private ScoreStore scoreStore;
+    private ScoreWatcher scoreWatcher;
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
@@ -53,11 +81,11 @@ public class MemoryCardBetaVersion extends JFrame {
 
     public MemoryCardBetaVersion() {
         setupWindow();
-        createSounds();
         createMenuScreen();
         createGameScreen();
         createScoreboardScreen();
-        loadHighScores();
+        scoreWorker.execute(this::refreshHighScores);
+        watchHighScores();
         showMenu();
     }
 
@@ -71,59 +99,6 @@ public class MemoryCardBetaVersion extends JFrame {
         getContentPane().setBackground(new Color(240, 240, 240));
     }
 
-    private void createSounds() {
-        try {
-            matchSound = createToneClip(880, 200);
-            mismatchSound = createToneClip(220, 300);
-            winSound = createToneSequence(new int[]{660, 784, 880}, new int[]{200, 200, 400});
-        } catch (Exception e) {
-            System.err.println("Error creating sounds: " + e.getMessage());
-        }
-    }
-
-    private Clip createToneClip(int hz, int msecs) throws LineUnavailableException {
-        AudioFormat af = new AudioFormat(44100, 8, 1, true, false);
-        Clip clip = AudioSystem.getClip();
-        byte[] buffer = new byte[44100 * msecs / 1000];
-        
-        for (int i = 0; i < buffer.length; i++) {
-            double progress = (double)i / buffer.length;
-            double angle = i / (44100.0 / hz) * 2.0 * Math.PI;
-            buffer[i] = (byte)(Math.sin(angle) * 127.0 * Math.sin(progress * Math.PI));
-        }
-        
-        clip.open(af, buffer, 0, buffer.length);
-        return clip;
-    }
-
-    private Clip createToneSequence(int[] frequencies, int[] durations) throws LineUnavailableException {
-        AudioFormat af = new AudioFormat(44100, 8, 1, true, false);
-        Clip clip = AudioSystem.getClip();
-        
-        int totalSamples = 0;
-        for (int duration : durations) {
-            totalSamples += 44100 * duration / 1000;
-        }
-        
-        byte[] buffer = new byte[totalSamples];
-        int pos = 0;
-        
-        for (int i = 0; i < frequencies.length; i++) {
-            int hz = frequencies[i];
-            int samples = 44100 * durations[i] / 1000;
-            
-            for (int j = 0; j < samples; j++) {
-                double progress = (double)j / samples;
-                double angle = (pos + j) / (44100.0 / hz) * 2.0 * Math.PI;
-                buffer[pos + j] = (byte)(Math.sin(angle) * 127.0 * Math.sin(progress * Math.PI));
-            }
-            pos += samples;
-        }
-        
-        clip.open(af, buffer, 0, buffer.length);
-        return clip;
-    }
-
     private void createMenuScreen() {
         menuPanel = new JPanel(new BorderLayout());
         menuPanel.setBackground(new Color(240, 240, 240));
@@ -316,12 +291,9 @@ public class MemoryCardBetaVersion extends JFrame {
         } else {
             sb.append(String.format("%-20s %-10s %-10s %-10s\n", "Player", "Difficulty", "Attempts", "Time Left"));
             sb.append("------------------------------------------------\n");
-            for (String score : highScores) {
-                String[] parts = score.split(",");
-                if (parts.length >= 4) {
-                    sb.append(String.format("%-20s %-10s %-10s %-10s\n", 
-                        parts[0], parts[1], parts[2], parts[3]));
-                }
+            for (ScoreEntry score : highScores) {
+                sb.append(String.format("%-20s %-10s %-10d %-10s\n", 
+                    score.getPlayerName(), score.getDifficultyText(), score.getAttempts(), score.getTimeLeftText()));
             }
         }
         scoresArea.setText(sb.toString());
@@ -329,6 +301,7 @@ public class MemoryCardBetaVersion extends JFrame {
     }
 
     private void showMenu() {
+        setTitle("Memory Card Game");
         getContentPane().removeAll();
         add(menuPanel, BorderLayout.CENTER);
         revalidate();
@@ -336,8 +309,6 @@ public class MemoryCardBetaVersion extends JFrame {
     }
     
     private void showScoreboard() {
-        loadHighScores();
-        
         // Find the JTextArea in the scoreboardPanel and update it
         Component[] components = scoreboardPanel.getComponents();
         for (Component component : components) {
@@ -368,33 +339,37 @@ public class MemoryCardBetaVersion extends JFrame {
     }
 
     private void startGame() {
+        startGame(ThreadLocalRandom.current().nextLong());
+    }
+
+    // The same seed and grid size always deal the same board
+    private void startGame(long seed) {
+        boardSeed = seed;
         firstCardIndex = -1;
         pairsFound = 0;
         attempts = 0;
+        streak = 0;
         timeLeft = 180;
         isGameActive = true;
         
         gamePanel.removeAll();
-        gamePanel.setLayout(new GridLayout(gridSize, gridSize, 10, 10));
-
-        // Create card pairs
-        int pairsNeeded = (gridSize * gridSize) / 2;
-        ArrayList<Integer> cardValues = new ArrayList<>();
-        for (int i = 0; i < pairsNeeded; i++) {
-            cardValues.add(i % CARD_SYMBOLS.length);
-            cardValues.add(i % CARD_SYMBOLS.length);
-        }
-        Collections.shuffle(cardValues);
+        gamePanel.setLayout(new BorderLayout());
+
+        // Create card pairs, dealt the same way as GameModel
+        cardSymbols = new int[(gridSize * gridSize) / 2 * 2];
+        GameModel.dealPairs(cardSymbols, CARD_SYMBOLS.length, seed);
         
         // Create cards
-        cards = new JButton[gridSize * gridSize];
-        for (int i = 0; i < cards.length; i++) {
-            cards[i] = createCard(cardValues.get(i));
-            gamePanel.add(cards[i]);
-        }
+        int cardSize = gridSize <= 4 ? 120 : gridSize == 6 ? 90 : 70;
+        board = new BoardCanvas(gridSize, cardSymbols.length, cardSize, 10, 25, getCardFont(),
+            CARD_BACK_COLOR, CARD_FRONT_COLOR, MATCHED_COLOR);
+        board.setStretch(true);
+        board.setClickListener(this::handleCardClick);
+        gamePanel.add(board, BorderLayout.CENTER);
 
         updateStatus();
         startGameTimer();
+        setTitle("Memory Card Game - Board " + Long.toUnsignedString(boardSeed, 36).toUpperCase());
 
         getContentPane().removeAll();
         add(gamePanel, BorderLayout.CENTER);
@@ -421,51 +396,6 @@ public class MemoryCardBetaVersion extends JFrame {
         repaint();
     }
 
-    private JButton createCard(int symbolIndex) {
-        JButton card = new JButton() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                
-                if (!isEnabled()) {
-                    g2.setColor(MATCHED_COLOR);
-                } else if (getModel().isPressed()) {
-                    g2.setColor(getBackground().darker());
-                } else if (getModel().isRollover()) {
-                    g2.setColor(getBackground().brighter());
-                } else {
-                    g2.setColor(getBackground());
-                }
-                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 25, 25);
-                
-                g2.setColor(new Color(100, 100, 100));
-                g2.drawRoundRect(0, 0, getWidth()-1, getHeight()-1, 25, 25);
-                g2.dispose();
-                
-                super.paintComponent(g);
-            }
-        };
-        
-        int cardSize = gridSize <= 4 ? 120 : gridSize == 6 ? 90 : 70;
-        card.setPreferredSize(new Dimension(cardSize, cardSize));
-        card.setMinimumSize(new Dimension(cardSize, cardSize));
-        card.setMaximumSize(new Dimension(cardSize, cardSize));
-        card.setActionCommand(String.valueOf(symbolIndex));
-        
-        // Card back (hidden state)
-        card.setBackground(CARD_BACK_COLOR);
-        card.setText("");
-        card.setFont(getCardFont());
-        card.setForeground(Color.WHITE);
-        
-        card.setOpaque(false);
-        card.setBorder(BorderFactory.createEmptyBorder());
-        card.setContentAreaFilled(false);
-        card.addActionListener(e -> handleCardClick(card, symbolIndex));
-        return card;
-    }
-
     private Font getCardFont() {
         int size;
         if (gridSize <= 4) size = 36;
@@ -474,28 +404,28 @@ public class MemoryCardBetaVersion extends JFrame {
         return new Font("Segoe UI Emoji", Font.PLAIN, size);
     }
 
-    private void handleCardClick(JButton card, int symbolIndex) {
-        if ((flipTimer != null && flipTimer.isRunning()) || !card.isEnabled()) {
+    private void handleCardClick(int index) {
+        // Face-up and matched cards take no clicks
+        if (flipPending || board.getState(index) != BoardCanvas.BACK) {
             return;
         }
 
         // Flip card to show front
-        card.setBackground(CARD_FRONT_COLOR);
-        card.setFont(getCardFont());
-        card.setText(CARD_SYMBOLS[symbolIndex]);
-        card.setForeground(Color.BLACK);
+        board.setCard(index, BoardCanvas.FRONT, CARD_SYMBOLS[cardSymbols[index]]);
 
         if (firstCardIndex == -1) {
-            firstCardIndex = findCardIndex(card);
+            firstCardIndex = index;
         } else {
             attempts++;
-            int secondCardIndex = findCardIndex(card);
+            int secondCardIndex = index;
             
             if (cardsMatch(firstCardIndex, secondCardIndex)) {
-                if (isSoundEnabled) playSound(matchSound);
+                streak++;
+                if (isSoundEnabled) soundManager.playComboSound(streak);
                 handleMatch(firstCardIndex, secondCardIndex);
             } else {
-                if (isSoundEnabled) playSound(mismatchSound);
+                streak = 0;
+                if (isSoundEnabled) soundManager.playMismatchSound();
                 flipNonMatchingCards(firstCardIndex, secondCardIndex);
             }
             firstCardIndex = -1;
@@ -503,74 +433,59 @@ public class MemoryCardBetaVersion extends JFrame {
         }
     }
 
-    private int findCardIndex(JButton card) {
-        for (int i = 0; i < cards.length; i++) {
-            if (cards[i] == card) return i;
-        }
-        return -1;
-    }
-
     private boolean cardsMatch(int index1, int index2) {
-        return cards[index1].getActionCommand().equals(cards[index2].getActionCommand());
+        return cardSymbols[index1] == cardSymbols[index2];
     }
 
     private void handleMatch(int index1, int index2) {
         pairsFound++;
-        cards[index1].setEnabled(false);
-        cards[index2].setEnabled(false);
-        cards[index1].setBackground(MATCHED_COLOR);
-        cards[index2].setBackground(MATCHED_COLOR);
+        board.setCard(index1, BoardCanvas.MATCHED, CARD_SYMBOLS[cardSymbols[index1]]);
+        board.setCard(index2, BoardCanvas.MATCHED, CARD_SYMBOLS[cardSymbols[index2]]);
         
-        if (pairsFound == cards.length / 2) {
+        if (pairsFound == cardSymbols.length / 2) {
             endGame(true);
         }
     }
 
     private void flipNonMatchingCards(int index1, int index2) {
-        flipTimer = new Timer(1000, e -> {
-            cards[index1].setBackground(CARD_BACK_COLOR);
-            cards[index1].setText("");
-            cards[index1].setFont(getCardFont());
-            cards[index1].setForeground(Color.WHITE);
-            
-            cards[index2].setBackground(CARD_BACK_COLOR);
-            cards[index2].setText("");
-            cards[index2].setFont(getCardFont());
-            cards[index2].setForeground(Color.WHITE);
-            
-            flipTimer.stop();
-        });
-        flipTimer.setRepeats(false);
-        flipTimer.start();
+        flipPending = true;
+        flipIndex1 = index1;
+        flipIndex2 = index2;
+        timers.schedule(flipTimer, 1000);
+    }
+
+    private void flipBack() {
+        if (!flipPending) {
+            return;
+        }
+        flipPending = false;
+        board.setCard(flipIndex1, BoardCanvas.BACK, null);
+        board.setCard(flipIndex2, BoardCanvas.BACK, null);
     }
 
     private void startGameTimer() {
-        if (gameTimer != null) {
-            gameTimer.stop();
+        timerLabel.setForeground(Color.WHITE);
+        timers.scheduleRepeating(gameTimer, 1000, 1000);
+    }
+
+    private void onSecond() {
+        if (!isGameActive) {
+            timers.cancel(gameTimer);
+            return;
         }
         
-        timerLabel.setForeground(Color.WHITE);
+        timeLeft--;
+        updateTimerDisplay();
         
-        gameTimer = new Timer(1000, e -> {
-            if (!isGameActive) {
-                gameTimer.stop();
-                return;
-            }
-            
-            timeLeft--;
-            updateTimerDisplay();
-            
-            if (timeLeft <= 30) {
-                timerLabel.setForeground(TIME_WARNING_COLOR);
-            }
-            
-            if (timeLeft <= 0) {
-                gameTimer.stop();
-                endGame(false);
-            }
-        });
+        if (timeLeft <= 30) {
+            timerLabel.setForeground(TIME_WARNING_COLOR);
+        }
+        if (isSoundEnabled) soundManager.playTickSound(timeLeft);
         
-        gameTimer.start();
+        if (timeLeft <= 0) {
+            timers.cancel(gameTimer);
+            endGame(false);
+        }
     }
 
     private void updateTimerDisplay() {
@@ -588,7 +503,7 @@ public class MemoryCardBetaVersion extends JFrame {
             getDifficultyText(),
             attempts,
             pairsFound,
-            cards.length / 2
+            cardSymbols.length / 2
         ));
     }
 
@@ -603,17 +518,15 @@ public class MemoryCardBetaVersion extends JFrame {
 
     private void endGame(boolean won) {
         isGameActive = false;
-        if (gameTimer != null) {
-            gameTimer.stop();
-        }
+        timers.cancel(gameTimer);
         
         if (won) {
-            if (isSoundEnabled) playSound(winSound);
+            if (isSoundEnabled) soundManager.playWinSound();
             saveScore();
             showWinMessage();
         } else {
             JOptionPane.showMessageDialog(this,
-                "Time's up! You found " + pairsFound + " of " + (cards.length/2) + " pairs.",
+                "Time's up! You found " + pairsFound + " of " + (cardSymbols.length/2) + " pairs.",
                 "Game Over",
                 JOptionPane.ERROR_MESSAGE);
             showMenu();
@@ -640,47 +553,23 @@ public class MemoryCardBetaVersion extends JFrame {
         soundToggleButton.setText(isSoundEnabled ? "🔊 Sounds ON" : "🔇 Sounds OFF");
     }	
 
-    private void playSound(Clip sound) {
-        if (isSoundEnabled && sound != null) {
-            sound.setFramePosition(0);
-            sound.start();
-        }
-    }
-
     private void saveScore() {
         String playerName = playerNameField.getText().trim();
         if (playerName.isEmpty()) {
             playerName = "Player";
         }
         
-        String difficulty = getDifficultyText();
-        String timeLeftStr = String.format("%02d:%02d", timeLeft / 60, timeLeft % 60);
-        
-        String scoreEntry = String.format("%s,%s,%d,%s", 
-            playerName, difficulty, attempts, timeLeftStr);
-        
-        // Load current scores
-        loadHighScores();
-        
-        // Add new score
-        highScores.add(scoreEntry);
-        
-        // Sort and keep top 10
-        Collections.sort(highScores, new ScoreComparator());
-        if (highScores.size() > 10) {
-            highScores = new ArrayList<>(highScores.subList(0, 10));
-        }
-        
-        // Save to file
-        try {
-            Path filePath = Paths.get(System.getProperty("user.dir"), SCORES_FILE);
-            Files.write(filePath, highScores, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-        } catch (IOException e) {
-            System.err.println("Error saving scores: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        updateScoreboardDisplay();
+        ScoreEntry entry = new ScoreEntry(playerName, getDifficultyText(), attempts, timeLeft);
+        // Append to the store; the refresh then reads back just that score
+        scoreWorker.execute(() -> {
+            try {
+                openScoreStore().append(entry);
+            } catch (IOException e) {
+                System.err.println("Error saving scores: " + e.getMessage());
+                e.printStackTrace();
+            }
+            refreshHighScores();
+        });
     }
     
     private void updateScoreboardDisplay() {
@@ -698,52 +587,42 @@ public class MemoryCardBetaVersion extends JFrame {
         }
     }
 
-    private class ScoreComparator implements Comparator<String> {
-        @Override
-        public int compare(String s1, String s2) {
-            String[] parts1 = s1.split(",");
-            String[] parts2 = s2.split(",");
-            
-            if (parts1.length < 4 || parts2.length < 4) {
-                return 0;
-            }
-            
-            try {
-                // First compare by attempts (lower is better)
-                int attempts1 = Integer.parseInt(parts1[2]);
-                int attempts2 = Integer.parseInt(parts2[2]);
-                if (attempts1 != attempts2) {
-                    return Integer.compare(attempts1, attempts2);
+    private void refreshHighScores() {
+        try {
+            ScoreStore store = openScoreStore();
+            boolean[] placed = new boolean[1];
+            scorePosition = store.forEach(scorePosition, Long.MAX_VALUE, (nameId, difficulty, attempts, secondsLeft, timestamp) -> {
+                if (leaderboard.qualifies(difficulty, null, ScoreEntry.sortKey(attempts, secondsLeft))) {
+                    placed[0] |= leaderboard.offer(new ScoreEntry(store.getName(nameId), difficulty, attempts, secondsLeft, timestamp));
                 }
-                
-                // Then compare by time left (more is better)
-                String[] time1 = parts1[3].split(":");
-                String[] time2 = parts2[3].split(":");
-                int min1 = Integer.parseInt(time1[0]);
-                int sec1 = Integer.parseInt(time1[1]);
-                int min2 = Integer.parseInt(time2[0]);
-                int sec2 = Integer.parseInt(time2[1]);
-                
-                int totalSec1 = min1 * 60 + sec1;
-                int totalSec2 = min2 * 60 + sec2;
-                
-                return Integer.compare(totalSec2, totalSec1);
-            } catch (Exception e) {
-                return 0;
+            });
+            if (placed[0]) {
+                ArrayList<ScoreEntry> scores = new ArrayList<>(leaderboard.getAllTopScores());
+                SwingUtilities.invokeLater(() -> {
+                    highScores = scores;
+                    updateScoreboardDisplay();
+                });
             }
+        } catch (IOException e) {
+            System.err.println("Error loading scores: " + e.getMessage());
+            e.printStackTrace();
         }
     }
 
-    private void loadHighScores() {
-        highScores = new ArrayList<>();
-        Path filePath = Paths.get(System.getProperty("user.dir"), SCORES_FILE);
-        if (Files.exists(filePath)) {
-            try {
-                highScores = new ArrayList<>(Files.readAllLines(filePath));
-            } catch (IOException e) {
-                System.err.println("Error loading scores: " + e.getMessage());
-                e.printStackTrace();
-            }
+    // Picks up scores saved by other instances; only the label update goes to the EDT
+    private void watchHighScores() {
+        try {
+            scoreWatcher = new ScoreWatcher(Paths.get(System.getProperty("user.dir")),
+                () -> scoreWorker.execute(this::refreshHighScores));
+        } catch (IOException e) {
+            System.err.println("Error watching scores: " + e.getMessage());
+        }
+    }
+
+    private ScoreStore openScoreStore() throws IOException {
+        if (scoreStore == null) {
+            scoreStore = ScoreStore.open(Paths.get(System.getProperty("user.dir")));
         }
+        return scoreStore;
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,9 @@ import java.awt.*;
 import java.awt.event.*;
 import java.util.*;
 import javax.swing.Timer;
+import java.util.concurrent.ThreadLocalRandom;
+
+import ModelClasses.GameModel;
 
 //Main game class extending JFrame for the application window
 public class MemoryGame extends JFrame {
@@ -40,6 +43,8 @@ public class MemoryGame extends JFrame {
     private int attempts = 0;
     // Timer for card flip animations
     private Timer flipTimer;
+    // Seed the current board was dealt from, so it can be rebuilt later
+    private long boardSeed;
 
     //Constructor to initialize the game
     public MemoryGame() {
@@ -156,6 +161,8 @@ public class MemoryGame extends JFrame {
 
     //Method to show the menu screen
     private void showMenu() {
+    	//Restore the plain title
+        setTitle("Memory Master");
     	//Clear current content
         getContentPane().removeAll();
         // Add menu panel
@@ -180,7 +187,8 @@ public class MemoryGame extends JFrame {
        
        //Create and add card buttons to panel
         cards = new JButton[gridSize * gridSize];
-        String[] cardValues = generateCardValues();
+        boardSeed = ThreadLocalRandom.current().nextLong();
+        String[] cardValues = generateCardValues(boardSeed);
         
         for (int i = 0; i < cards.length; i++) {
             cards[i] = createCard(cardValues[i]);
@@ -189,6 +197,8 @@ public class MemoryGame extends JFrame {
 
         // Update status display
         updateStatus();
+        // Show the board seed so this exact board can be reported and rebuilt
+        setTitle("Memory Master - Board " + Long.toUnsignedString(boardSeed, 36).toUpperCase());
 
        // Show game screen
        // Clear current content
@@ -201,21 +211,17 @@ public class MemoryGame extends JFrame {
         revalidate();
         repaint();
     }
-    // Method to generate shuffled card values
-    private String[] generateCardValues() {
-        int pairsNeeded = (gridSize * gridSize) / 2;
-        ArrayList<String> values = new ArrayList<>();
+    // Method to generate shuffled card values; the same seed always gives the same order
+    private String[] generateCardValues(long seed) {
+        // Pairs of emoji indexes, dealt the same way as GameModel
+        int[] symbols = new int[(gridSize * gridSize) / 2 * 2];
+        GameModel.dealPairs(symbols, EMOJIS.length, seed);
         
-        // Add pairs of emojis
-        for (int i = 0; i < pairsNeeded; i++) {
-            String emoji = EMOJIS[i % EMOJIS.length];
-            values.add(emoji);
-            values.add(emoji);
+        String[] values = new String[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            values[i] = EMOJIS[symbols[i]];
         }
-        
-        // Shuffle and convert to array
-        Collections.shuffle(values);
-        return values.toArray(new String[0]);
+        return values;
     }
     // Method to create a single card button
     private JButton createCard(String value) {